@@ -3,11 +3,13 @@ package com.linarqa.config;
 import com.linarqa.entity.User;
 import com.linarqa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 // @Component
+@Slf4j
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -49,8 +51,6 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
         userRepository.save(staff);
 
-        System.out.println("✅ Test users created:");
-        System.out.println("   OWNER: admin@linarqa.com / password123");
-        System.out.println("   STAFF: staff@linarqa.com / password123");
+        log.info("Test users created: OWNER admin@linarqa.com, STAFF staff@linarqa.com");
     }
 } 
\ No newline at end of file
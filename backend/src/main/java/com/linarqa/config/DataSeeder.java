@@ -4,6 +4,7 @@ import com.linarqa.entity.Student;
 import com.linarqa.entity.User;
 import com.linarqa.repository.StudentRepository;
 import com.linarqa.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,6 +15,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @Component
 public class DataSeeder implements CommandLineRunner {
 
@@ -81,7 +83,7 @@ public class DataSeeder implements CommandLineRunner {
         );
 
         userRepository.saveAll(users);
-        System.out.println("✅ Users seeded successfully!");
+        log.info("Users seeded");
     }
 
     private void seedStudents() {
@@ -295,7 +297,6 @@ public class DataSeeder implements CommandLineRunner {
         );
 
         studentRepository.saveAll(students);
-        System.out.println("✅ Students seeded successfully!");
-        System.out.println("📊 Total students created: " + students.size());
+        log.info("Students seeded: {}", students.size());
     }
 } 
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.linarqa.config;
 
 import com.linarqa.entity.User;
-import com.linarqa.repository.UserRepository;
 import com.linarqa.service.JwtService;
+import com.linarqa.service.PrincipalCacheService;
+import com.linarqa.service.RefreshTokenService;
+import com.linarqa.util.LogSampler;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,35 +25,39 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCacheService principalCacheService;
+    private final RefreshTokenService refreshTokenService;
+
+    @Value("${logging.sampling.hot-path-rate:100}")
+    private int debugSampleRate;
+
+    private LogSampler debugSampler;
+
+    @PostConstruct
+    void init() {
+        debugSampler = new LogSampler(debugSampleRate);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
             throws ServletException, IOException {
         
-        System.out.println("🔍 JWT Filter - Processing request: " + request.getRequestURI());
         String authHeader = request.getHeader("Authorization");
-        System.out.println("🔍 JWT Filter - Auth header: " + (authHeader != null ? "Present" : "Missing"));
-        
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            System.out.println("🔍 JWT Filter - Token extracted, validating...");
-            
-            if (jwtService.isTokenValid(token)) {
-                System.out.println("🔍 JWT Filter - Token is valid");
-                String email = jwtService.extractEmail(token);
-                System.out.println("🔍 JWT Filter - Extracted email: " + email);
-                
-                var userOpt = userRepository.findByEmail(email);
+            Claims claims = jwtService.validate(token);
+            if (claims != null && !refreshTokenService.isSessionRevoked(claims.get(JwtService.SESSION_CLAIM, String.class))) {
+                String email = claims.getSubject();
+                var userOpt = principalCacheService.getActiveUser(email);
                 
                 if (userOpt.isPresent()) {
                     User user = userOpt.get();
-                    System.out.println("🔍 JWT Filter - Found user: " + user.getFullName() + " (Role: " + user.getRole() + ")");
                     
                     // Set authorities based on user role
                     List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
@@ -56,18 +67,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             new UsernamePasswordAuthenticationToken(user, null, authorities);
                     
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    MDC.put("userId", user.getId().toString());
                     
-                    System.out.println("🔐 JWT Authentication successful for user: " + user.getEmail() + " with role: " + user.getRole());
-                } else {
-                    System.out.println("❌ JWT Filter - User not found in database for email: " + email);
+                    if (log.isDebugEnabled() && debugSampler.sample()) {
+                        log.debug("Authenticated {} with role {} for {}", user.getEmail(), user.getRole(), request.getRequestURI());
+                    }
+                } else if (log.isDebugEnabled() && debugSampler.sample()) {
+                    log.debug("No active user for token subject {}", email);
                 }
-            } else {
-                System.out.println("❌ JWT Filter - Token is invalid");
+            } else if (log.isDebugEnabled() && debugSampler.sample()) {
+                log.debug("Rejected invalid or revoked token for {}", request.getRequestURI());
             }
-        } else {
-            System.out.println("❌ JWT Filter - No valid Authorization header");
         }
         
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+}
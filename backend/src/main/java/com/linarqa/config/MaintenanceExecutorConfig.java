@@ -0,0 +1,23 @@
+package com.linarqa.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MaintenanceExecutorConfig {
+
+    /**
+     * Runs the nightly clean-up jobs (upload GC, notification retention), which pause between
+     * batches for minutes; off the scheduler thread so heartbeats and periodic checks keep their timing
+     */
+    @Bean(name = "maintenanceExecutor")
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.setThreadNamePrefix("maintenance-");
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.linarqa.config;
+
+import com.linarqa.entity.Notification;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Burst coalescing rules for notifications, bound from notifications.coalescing.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notifications.coalescing")
+public class NotificationCoalescingProperties {
+
+    private boolean enabled = true;
+
+    /** Coalescing rule per notification type; types without a rule are never coalesced */
+    private Map<Notification.NotificationType, Rule> types = new HashMap<>();
+
+    /**
+     * Rule for a type, or null when the type is written one notification per event
+     */
+    public Rule getRuleFor(Notification.NotificationType type) {
+        return enabled ? types.get(type) : null;
+    }
+
+    @Data
+    public static class Rule {
+
+        /** Quiet period that ends a burst; the window slides with every event */
+        private long windowMs = 10000;
+
+        /** Events written individually within one burst before the rest are folded into a digest */
+        private int threshold = 5;
+
+        /** Longest a digest is held back while its burst keeps going */
+        private long maxDelayMs = 60000;
+    }
+}
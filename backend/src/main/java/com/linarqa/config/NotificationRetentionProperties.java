@@ -0,0 +1,37 @@
+package com.linarqa.config;
+
+import com.linarqa.entity.Notification;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retention policy for notifications, bound from notifications.retention.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notifications.retention")
+public class NotificationRetentionProperties {
+
+    /** Off unless turned on, since purged notifications cannot be recovered */
+    private boolean enabled = false;
+
+    /** Days to keep notifications of types without an explicit policy; 0 keeps them forever */
+    private int defaultDays = 0;
+
+    /** Days to keep per notification type; 0 keeps them forever */
+    private Map<Notification.NotificationType, Integer> days = new HashMap<>();
+
+    /** Rows deleted per transaction */
+    private int chunkSize = 500;
+
+    /** Pause between chunks so other writers can take the locks */
+    private long chunkPauseMs = 50;
+
+    public int getDaysFor(Notification.NotificationType type) {
+        return days.getOrDefault(type, defaultDays);
+    }
+}
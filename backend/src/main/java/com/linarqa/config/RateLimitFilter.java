@@ -0,0 +1,166 @@
+package com.linarqa.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linarqa.entity.User;
+import com.linarqa.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Rejects requests over their endpoint class's rate with 429 and Retry-After, and requests
+ * beyond the class's concurrency cap with 503. Runs after JWT authentication so signed-in
+ * users are limited individually rather than by the shared office IP; login attempts are
+ * limited per IP and submitted email for the same reason.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login bodies are a few dozen bytes; larger ones are not buffered and fall back to the IP key
+    private static final int MAX_KEYED_BODY_BYTES = 4096;
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        
+        RateLimitProperties.EndpointClass endpointClass = rateLimitService.resolve(request.getRequestURI());
+        if (endpointClass == null || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String clientKey = clientKey(request);
+        if (endpointClass.isKeyByEmail() && clientKey.startsWith("ip:")) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request, MAX_KEYED_BODY_BYTES);
+            if (cached != null) {
+                request = cached;
+                String email = submittedEmail(cached.body);
+                if (email != null) {
+                    clientKey += ":email:" + email;
+                }
+            }
+        }
+        
+        long retryAfterSeconds = rateLimitService.tryConsume(endpointClass, clientKey);
+        if (retryAfterSeconds > 0) {
+            reject(response, 429, retryAfterSeconds, "Too many requests");
+            return;
+        }
+        if (!rateLimitService.tryEnter(endpointClass)) {
+            reject(response, 503, 1, "Server busy");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            rateLimitService.release(endpointClass);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String submittedEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    /**
+     * Request whose body has been read into memory so the filter can look at it and the
+     * controller can still bind it
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * The buffered request, or null when the body is missing or larger than maxBytes
+         */
+        static CachedBodyRequest of(HttpServletRequest request, int maxBytes) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length <= 0 || length > maxBytes) {
+                return null;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes(maxBytes));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
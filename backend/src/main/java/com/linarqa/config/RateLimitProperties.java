@@ -0,0 +1,49 @@
+package com.linarqa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request rate limits per endpoint class, bound from rate-limit.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Endpoint classes in match order; a request belongs to the first class with a matching pattern */
+    private List<EndpointClass> classes = new ArrayList<>();
+
+    /** Buckets untouched for this long are dropped (they would be full again anyway) */
+    private long idleBucketTtlMs = 600000;
+
+    @Data
+    public static class EndpointClass {
+
+        private String name;
+
+        /** Ant-style request path patterns */
+        private List<String> patterns = new ArrayList<>();
+
+        /** Burst size: requests a client may make at once */
+        private int capacity = 100;
+
+        /** Sustained rate at which a client's bucket refills */
+        private double refillPerMinute = 600;
+
+        /** Requests of this class served at the same time across all clients; 0 for no cap */
+        private int maxConcurrent = 0;
+
+        /**
+         * Key anonymous clients by IP and the email in the JSON body, so users behind one
+         * office IP do not share a bucket
+         */
+        private boolean keyByEmail = false;
+    }
+}
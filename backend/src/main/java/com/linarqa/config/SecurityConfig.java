@@ -1,14 +1,18 @@
 package com.linarqa.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linarqa.service.RateLimitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -22,6 +26,8 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -40,9 +46,15 @@ public class SecurityConfig {
                 .requestMatchers("/api/notifications/**").permitAll() // Temporarily allow all notification endpoints for testing
                 .requestMatchers("/api/notifications-simple/**").permitAll() // Allow simple notification endpoints for testing
                 .requestMatchers("/api/test-notifications").permitAll() // Allow test endpoint
+                .requestMatchers("/actuator/loggers/**").hasRole("OWNER")
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            // A missing or expired token is a 401 so the client knows to refresh it, not a 403
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Not a bean, so it only runs here, after the principal is known
+            .addFilterAfter(new RateLimitFilter(rateLimitService, objectMapper), JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,25 @@
+package com.linarqa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orphaned upload collection, bound from uploads.gc.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "uploads.gc")
+public class UploadGcProperties {
+
+    private boolean enabled = true;
+
+    /** Files younger than this are never collected, so photos of enrollments still being filled in survive */
+    private int gracePeriodHours = 24;
+
+    /** Files deleted before pausing */
+    private int batchSize = 200;
+
+    /** Pause between batches so the collector does not monopolise the disk */
+    private long batchPauseMs = 50;
+}
@@ -1,16 +0,0 @@
-package com.linarqa.config;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve uploaded files as static resources
-        registry.addResourceHandler("/api/uploads/**", "/uploads/**")
-                .addResourceLocations("file:uploads/");
-    }
-} 
\ No newline at end of file
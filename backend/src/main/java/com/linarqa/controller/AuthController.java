@@ -2,6 +2,7 @@ package com.linarqa.controller;
 
 import com.linarqa.dto.LoginRequest;
 import com.linarqa.dto.LoginResponse;
+import com.linarqa.dto.RefreshTokenRequest;
 import com.linarqa.entity.User;
 import com.linarqa.service.AuthService;
 import com.linarqa.service.JwtService;
@@ -25,6 +26,21 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).build();
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<User> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
         String token = authHeader.substring(7); // Remove "Bearer "
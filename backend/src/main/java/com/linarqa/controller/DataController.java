@@ -22,9 +22,14 @@ import com.linarqa.repository.PaymentRepository;
 import com.linarqa.repository.StaffRepository;
 import com.linarqa.service.FileUploadService;
 import com.linarqa.service.PaymentService;
+import com.linarqa.service.StudentService;
 import com.linarqa.service.NotificationService;
 import com.linarqa.util.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -38,6 +43,7 @@ import com.linarqa.entity.BelongingRequirement;
 import com.linarqa.entity.StudentBelonging;
 import com.linarqa.dto.NotificationDto;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 public class DataController {
@@ -62,6 +68,8 @@ public class DataController {
     @Autowired
     private PaymentService paymentService;
     @Autowired
+    private StudentService studentService;
+    @Autowired
     private PaymentRepository paymentRepository;
     @Autowired
     private StaffRepository staffRepository;
@@ -70,19 +78,15 @@ public class DataController {
     @GetMapping("/test-notifications")
     public ResponseEntity<Map<String, Object>> testNotifications() {
         try {
-            System.out.println("🧪 DataController.testNotifications() called");
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Test endpoint working!");
             response.put("timestamp", java.time.LocalDateTime.now());
             response.put("totalNotifications", notificationService.getTotalNotificationCount());
             response.put("unreadNotifications", notificationService.getTotalUnreadNotificationCount());
             
-            System.out.println("✅ Test endpoint successful");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ Error in testNotifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Notification test endpoint failed", e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -94,20 +98,14 @@ public class DataController {
     @GetMapping("/notifications-simple/all")
     public ResponseEntity<List<NotificationDto>> getAllNotifications() {
         try {
-            System.out.println("🔔 DataController.getAllNotifications() called");
-            
             // Get all notifications from the database and convert to DTOs
-            List<com.linarqa.entity.Notification> notifications = notificationService.getAllNotifications();
-            List<NotificationDto> notificationDtos = notifications.stream()
-                .map(NotificationDto::fromEntity)
-                .collect(Collectors.toList());
+            List<NotificationDto> notificationDtos = notificationService.getAllNotifications();
             
-            System.out.println("📋 Found " + notificationDtos.size() + " total notifications");
+            log.debug("Found {} total notifications", notificationDtos.size());
             
             return ResponseEntity.ok(notificationDtos);
         } catch (Exception e) {
-            System.err.println("❌ Error in getAllNotifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to load all notifications", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -115,20 +113,14 @@ public class DataController {
     @GetMapping("/notifications-simple/unread")
     public ResponseEntity<List<NotificationDto>> getUnreadNotifications() {
         try {
-            System.out.println("🔔 DataController.getUnreadNotifications() called");
-            
             // Get all unread notifications from the database and convert to DTOs
-            List<com.linarqa.entity.Notification> notifications = notificationService.getAllUnreadNotifications();
-            List<NotificationDto> notificationDtos = notifications.stream()
-                .map(NotificationDto::fromEntity)
-                .collect(Collectors.toList());
+            List<NotificationDto> notificationDtos = notificationService.getAllUnreadNotifications();
             
-            System.out.println("📋 Found " + notificationDtos.size() + " unread notifications");
+            log.debug("Found {} unread notifications", notificationDtos.size());
             
             return ResponseEntity.ok(notificationDtos);
         } catch (Exception e) {
-            System.err.println("❌ Error in getUnreadNotifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to load unread notifications", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -136,8 +128,6 @@ public class DataController {
     @GetMapping("/notifications-simple/count")
     public ResponseEntity<Map<String, Long>> getNotificationCount() {
         try {
-            System.out.println("🔔 DataController.getNotificationCount() called");
-            
             long totalCount = notificationService.getTotalNotificationCount();
             long unreadCount = notificationService.getTotalUnreadNotificationCount();
             
@@ -145,12 +135,11 @@ public class DataController {
             response.put("total", totalCount);
             response.put("unread", unreadCount);
             
-            System.out.println("📊 Total notifications: " + totalCount + ", Unread: " + unreadCount);
+            log.debug("Notification counts: total={} unread={}", totalCount, unreadCount);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ Error in getNotificationCount: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to count notifications", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -224,20 +213,7 @@ public class DataController {
 
     @PostMapping("/students")
     public ResponseEntity<Student> createStudent(@RequestBody Student student) {
-        Student savedStudent = studentRepository.save(student);
-        
-        // Notify admin users about new student registration
-        try {
-            securityUtils.getCurrentUserId().ifPresent(userId -> {
-                String studentName = savedStudent.getFirstName() + " " + savedStudent.getLastName();
-                String studentNameArabic = (savedStudent.getFirstNameArabic() != null ? savedStudent.getFirstNameArabic() : savedStudent.getFirstName()) + 
-                                         " " + (savedStudent.getLastNameArabic() != null ? savedStudent.getLastNameArabic() : savedStudent.getLastName());
-                notificationService.notifyStudentRegistered(studentName, studentNameArabic, savedStudent.getId(), userId);
-            });
-        } catch (Exception e) {
-            // Log error but don't fail the request
-            System.err.println("Failed to send notification: " + e.getMessage());
-        }
+        Student savedStudent = studentService.createStudent(student);
         
         return ResponseEntity.ok(savedStudent);
     }
@@ -261,35 +237,29 @@ public class DataController {
             .status(Student.StudentStatus.ACTIVE)
             .build();
         
-        Student savedStudent = studentRepository.save(newStudent);
-        
-        // Notify admin users about new extra course student registration
-        try {
-            securityUtils.getCurrentUserId().ifPresent(userId -> {
-                String studentName = savedStudent.getFirstName() + " " + savedStudent.getLastName();
-                String studentNameArabic = (savedStudent.getFirstNameArabic() != null ? savedStudent.getFirstNameArabic() : savedStudent.getFirstName()) + 
-                                         " " + (savedStudent.getLastNameArabic() != null ? savedStudent.getLastNameArabic() : savedStudent.getLastName());
-                notificationService.notifyStudentRegistered(studentName, studentNameArabic, savedStudent.getId(), userId);
-            });
-        } catch (Exception e) {
-            // Log error but don't fail the request
-            System.err.println("Failed to send notification: " + e.getMessage());
-        }
+        Student savedStudent = studentService.createStudent(newStudent);
         
         return ResponseEntity.ok(savedStudent);
     }
 
     @PutMapping("/students/{id}")
     public ResponseEntity<Student> updateStudent(@PathVariable String id, @RequestBody Student student) {
-        if (!studentRepository.existsById(UUID.fromString(id))) return ResponseEntity.notFound().build();
+        Student existing = studentRepository.findById(UUID.fromString(id)).orElse(null);
+        if (existing == null) return ResponseEntity.notFound().build();
             student.setId(UUID.fromString(id));
+            fileUploadService.reassignFile(existing.getPhotoUrl(), student.getPhotoUrl());
         return ResponseEntity.ok(studentRepository.save(student));
     }
 
     @DeleteMapping("/students/{id}")
     public ResponseEntity<Void> deleteStudent(@PathVariable String id) {
-        if (!studentRepository.existsById(UUID.fromString(id))) return ResponseEntity.notFound().build();
-            studentRepository.deleteById(UUID.fromString(id));
+        Student student = studentRepository.findById(UUID.fromString(id)).orElse(null);
+        if (student == null) return ResponseEntity.notFound().build();
+            studentRepository.deleteById(student.getId());
+            // Release the photo once the row is gone; external URLs are ignored
+            if (student.getPhotoUrl() != null) {
+                fileUploadService.deleteFile(student.getPhotoUrl());
+            }
             return ResponseEntity.ok().build();
     }
 
@@ -309,6 +279,7 @@ public class DataController {
         
         return studentRepository.findById(UUID.fromString(id))
             .map(student -> {
+                fileUploadService.reassignFile(student.getPhotoUrl(), photoUrl);
                 student.setPhotoUrl(photoUrl);
                 return ResponseEntity.ok(studentRepository.save(student));
             })
@@ -337,15 +308,7 @@ public class DataController {
             String photoUrl = fileUploadService.uploadFile(file);
             
             // Update student photo URL
-            studentRepository.findById(UUID.fromString(id))
-                .ifPresent(student -> {
-                    // Delete old photo if exists
-                    if (student.getPhotoUrl() != null && (student.getPhotoUrl().startsWith("/api/uploads/") || student.getPhotoUrl().startsWith("http://localhost:8080/api/uploads/"))) {
-                        fileUploadService.deleteFile(student.getPhotoUrl());
-                    }
-                    student.setPhotoUrl(photoUrl);
-                    studentRepository.save(student);
-                });
+            replaceStudentPhoto(id, photoUrl);
             
             return ResponseEntity.ok(Map.of("photoUrl", photoUrl));
             
@@ -354,7 +317,36 @@ public class DataController {
         }
     }
 
-    @PostMapping("/students/{id}/upload-camera-photo")
+    // Camera captures sent as the raw image bytes are streamed to disk with constant memory
+    @PostMapping(value = "/students/{id}/upload-camera-photo", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, String>> uploadCameraPhotoStream(
+            @PathVariable String id,
+            HttpServletRequest request) {
+        
+        if (request.getContentLengthLong() > fileUploadService.getMaxPhotoBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "Photo is too large"));
+        }
+        try {
+            String photoUrl = fileUploadService.saveImageStream(request.getInputStream(), request.getContentType());
+            replaceStudentPhoto(id, photoUrl);
+            return ResponseEntity.ok(Map.of("photoUrl", photoUrl));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/students/{id}/upload-camera-photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, String>> uploadCameraPhotoMultipart(
+            @PathVariable String id,
+            @RequestParam("file") MultipartFile file) {
+        return uploadStudentPhoto(id, file);
+    }
+
+    // Legacy base64 JSON body, kept for older clients
+    @PostMapping(value = "/students/{id}/upload-camera-photo", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, String>> uploadCameraPhoto(
             @PathVariable String id,
             @RequestBody Map<String, String> request) {
@@ -374,15 +366,7 @@ public class DataController {
             String photoUrl = fileUploadService.saveBase64Image(base64Data, ".jpg");
             
             // Update student photo URL
-            studentRepository.findById(UUID.fromString(id))
-                .ifPresent(student -> {
-                    // Delete old photo if exists
-                    if (student.getPhotoUrl() != null && (student.getPhotoUrl().startsWith("/api/uploads/") || student.getPhotoUrl().startsWith("http://localhost:8080/api/uploads/"))) {
-                        fileUploadService.deleteFile(student.getPhotoUrl());
-                    }
-                    student.setPhotoUrl(photoUrl);
-                    studentRepository.save(student);
-                });
+            replaceStudentPhoto(id, photoUrl);
             
             return ResponseEntity.ok(Map.of("photoUrl", photoUrl));
             
@@ -391,6 +375,18 @@ public class DataController {
         }
     }
 
+    private void replaceStudentPhoto(String id, String photoUrl) {
+        studentRepository.findById(UUID.fromString(id))
+            .ifPresent(student -> {
+                // Release old photo if it is an upload; external URLs are ignored
+                if (student.getPhotoUrl() != null) {
+                    fileUploadService.deleteFile(student.getPhotoUrl());
+                }
+                student.setPhotoUrl(photoUrl);
+                studentRepository.save(student);
+            });
+    }
+
     // File upload endpoints for new enrollments (no student ID required)
     @PostMapping("/enrollments/upload-photo")
     public ResponseEntity<Map<String, String>> uploadEnrollmentPhoto(@RequestParam("file") MultipartFile file) {
@@ -416,7 +412,29 @@ public class DataController {
         }
     }
 
-    @PostMapping("/enrollments/upload-camera-photo")
+    @PostMapping(value = "/enrollments/upload-camera-photo", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, String>> uploadEnrollmentCameraPhotoStream(HttpServletRequest request) {
+        if (request.getContentLengthLong() > fileUploadService.getMaxPhotoBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "Photo is too large"));
+        }
+        try {
+            String photoUrl = fileUploadService.saveImageStream(request.getInputStream(), request.getContentType());
+            return ResponseEntity.ok(Map.of("photoUrl", photoUrl));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/enrollments/upload-camera-photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, String>> uploadEnrollmentCameraPhotoMultipart(@RequestParam("file") MultipartFile file) {
+        return uploadEnrollmentPhoto(file);
+    }
+
+    // Legacy base64 JSON body, kept for older clients
+    @PostMapping(value = "/enrollments/upload-camera-photo", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, String>> uploadEnrollmentCameraPhoto(@RequestBody Map<String, String> request) {
         try {
             String base64Data = request.get("base64Data");
@@ -502,8 +520,7 @@ public class DataController {
         
         List<AttendanceRecord> records;
         
-        // For debugging, let's log what we're getting
-        System.out.println("Attendance request - date: " + date + ", type: " + type + ", startDate: " + startDate + ", endDate: " + endDate);
+        log.debug("Attendance request: date={} type={} startDate={} endDate={}", date, type, startDate, endDate);
         
         if (startDate != null && endDate != null) {
             // Get records for date range
@@ -534,13 +551,13 @@ public class DataController {
         } else {
             // If no filters, return all records
             records = attendanceRecordRepository.findAll();
-            System.out.println("Total records found: " + records.size());
+            log.debug("Attendance records found: {}", records.size());
             if (type != null) {
                 Student.StudentType studentType = Student.StudentType.valueOf(type.toUpperCase());
                 records = records.stream()
                     .filter(record -> record.getStudent().getStudentType() == studentType)
                     .collect(Collectors.toList());
-                System.out.println("Records after type filter: " + records.size());
+                log.debug("Attendance records after type filter: {}", records.size());
             }
         }
         
@@ -568,6 +585,7 @@ public class DataController {
             studentDto.put("level", student.getLevel());
             studentDto.put("classroom", student.getClassroom());
             studentDto.put("photoUrl", student.getPhotoUrl());
+            studentDto.put("photoVariants", student.getPhotoVariants());
             studentDto.put("studentType", student.getStudentType().toString());
             
             dto.put("student", studentDto);
@@ -755,6 +773,7 @@ public class DataController {
             studentDto.put("lastName", student.getLastName());
             studentDto.put("level", student.getLevel());
             studentDto.put("photoUrl", student.getPhotoUrl());
+            studentDto.put("photoVariants", student.getPhotoVariants());
             
             dto.put("student", studentDto);
             return dto;
@@ -879,6 +898,7 @@ public class DataController {
             data.put("studentName", payment.getStudent().getFirstName() + " " + payment.getStudent().getLastName());
             data.put("studentNameArabic", payment.getStudent().getFirstNameArabic() + " " + payment.getStudent().getLastNameArabic());
             data.put("studentPhotoUrl", payment.getStudent().getPhotoUrl());
+            data.put("studentPhotoVariants", payment.getStudent().getPhotoVariants());
             data.put("type", payment.getType().toString());
             data.put("amount", payment.getAmount());
             data.put("status", payment.getStatus().toString());
@@ -927,20 +947,6 @@ public class DataController {
             
             Payment payment = paymentService.generateBillForStudent(studentId, dueDate, notes);
             
-            // Notify admin users about new payment creation
-            try {
-                securityUtils.getCurrentUserId().ifPresent(userId -> {
-                    String studentName = payment.getStudent().getFirstName() + " " + payment.getStudent().getLastName();
-                    String studentNameArabic = (payment.getStudent().getFirstNameArabic() != null ? payment.getStudent().getFirstNameArabic() : payment.getStudent().getFirstName()) + 
-                                             " " + (payment.getStudent().getLastNameArabic() != null ? payment.getStudent().getLastNameArabic() : payment.getStudent().getLastName());
-                    String amount = payment.getAmount().toString();
-                    notificationService.notifyPaymentCreated(studentName, studentNameArabic, amount, payment.getId(), userId);
-                });
-            } catch (Exception e) {
-                // Log error but don't fail the request
-                System.err.println("Failed to send notification: " + e.getMessage());
-            }
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Bill generated successfully");
             response.put("paymentId", payment.getId().toString());
@@ -975,20 +981,6 @@ public class DataController {
             
             Payment payment = paymentService.markPaymentAsPaid(UUID.fromString(id), paidDate, notes);
             
-            // Notify admin users about payment marked as paid
-            try {
-                securityUtils.getCurrentUserId().ifPresent(userId -> {
-                    String studentName = payment.getStudent().getFirstName() + " " + payment.getStudent().getLastName();
-                    String studentNameArabic = (payment.getStudent().getFirstNameArabic() != null ? payment.getStudent().getFirstNameArabic() : payment.getStudent().getFirstName()) + 
-                                             " " + (payment.getStudent().getLastNameArabic() != null ? payment.getStudent().getLastNameArabic() : payment.getStudent().getLastName());
-                    String amount = payment.getAmount().toString();
-                    notificationService.notifyPaymentMarkedPaid(studentName, studentNameArabic, amount, payment.getId(), userId);
-                });
-            } catch (Exception e) {
-                // Log error but don't fail the request
-                System.err.println("Failed to send payment paid notification: " + e.getMessage());
-            }
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Payment marked as paid successfully");
             response.put("paymentId", payment.getId().toString());
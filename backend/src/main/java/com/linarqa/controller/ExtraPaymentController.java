@@ -2,8 +2,7 @@ package com.linarqa.controller;
 
 import com.linarqa.entity.ExtraPayment;
 import com.linarqa.service.ExtraPaymentService;
-import com.linarqa.service.NotificationService;
-import com.linarqa.util.SecurityUtils;
+import com.linarqa.util.PhotoVariants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,12 +22,6 @@ public class ExtraPaymentController {
     @Autowired
     private ExtraPaymentService extraPaymentService;
 
-    @Autowired
-    private NotificationService notificationService;
-
-    @Autowired
-    private SecurityUtils securityUtils;
-
     /**
      * Get all extra payments with optional filters
      */
@@ -49,6 +42,7 @@ public class ExtraPaymentController {
                 data.put("studentName", payment.getExtraStudent().getFirstName() + " " + payment.getExtraStudent().getLastName());
                 data.put("studentNameArabic", payment.getExtraStudent().getFirstNameArabic() + " " + payment.getExtraStudent().getLastNameArabic());
                 data.put("studentPhotoUrl", payment.getExtraStudent().getPhotoUrl());
+                data.put("studentPhotoVariants", PhotoVariants.urlsFor(payment.getExtraStudent().getPhotoUrl()));
                 data.put("courseName", payment.getExtraCourse().getTitle());
                 data.put("courseId", payment.getExtraCourse().getId().toString());
                 data.put("amount", payment.getAmount());
@@ -140,20 +134,6 @@ public class ExtraPaymentController {
             
             ExtraPayment payment = extraPaymentService.generateBillForStudentAndCourse(studentId, courseId, dueDate, notes);
             
-            // Notify admin users about new extra payment creation
-            try {
-                securityUtils.getCurrentUserId().ifPresent(userId -> {
-                    String studentName = payment.getExtraStudent().getFirstName() + " " + payment.getExtraStudent().getLastName();
-                    String studentNameArabic = (payment.getExtraStudent().getFirstNameArabic() != null ? payment.getExtraStudent().getFirstNameArabic() : payment.getExtraStudent().getFirstName()) + 
-                                             " " + (payment.getExtraStudent().getLastNameArabic() != null ? payment.getExtraStudent().getLastNameArabic() : payment.getExtraStudent().getLastName());
-                    String amount = payment.getAmount().toString();
-                    notificationService.notifyExtraPaymentCreated(studentName, studentNameArabic, amount, payment.getId(), userId);
-                });
-            } catch (Exception e) {
-                // Log error but don't fail the request
-                System.err.println("Failed to send notification: " + e.getMessage());
-            }
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Bill generated successfully");
             response.put("paymentId", payment.getId().toString());
@@ -176,20 +156,6 @@ public class ExtraPaymentController {
         try {
             ExtraPayment payment = extraPaymentService.markPaymentAsPaid(id);
             
-            // Notify admin users about extra payment marked as paid
-            try {
-                securityUtils.getCurrentUserId().ifPresent(userId -> {
-                    String studentName = payment.getExtraStudent().getFirstName() + " " + payment.getExtraStudent().getLastName();
-                    String studentNameArabic = (payment.getExtraStudent().getFirstNameArabic() != null ? payment.getExtraStudent().getFirstNameArabic() : payment.getExtraStudent().getFirstName()) + 
-                                             " " + (payment.getExtraStudent().getLastNameArabic() != null ? payment.getExtraStudent().getLastNameArabic() : payment.getExtraStudent().getLastName());
-                    String amount = payment.getAmount().toString();
-                    notificationService.notifyExtraPaymentMarkedPaid(studentName, studentNameArabic, amount, payment.getId(), userId);
-                });
-            } catch (Exception e) {
-                // Log error but don't fail the request
-                System.err.println("Failed to send extra payment paid notification: " + e.getMessage());
-            }
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Payment marked as paid");
             response.put("paymentId", payment.getId().toString());
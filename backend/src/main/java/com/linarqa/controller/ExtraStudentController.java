@@ -4,8 +4,8 @@ import com.linarqa.dto.ExtraStudentDto;
 import com.linarqa.dto.ExtraStudentRequest;
 import com.linarqa.entity.ExtraStudent;
 import com.linarqa.service.ExtraStudentService;
-import com.linarqa.service.NotificationService;
-import com.linarqa.util.SecurityUtils;
+import com.linarqa.service.FileUploadService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -29,10 +29,7 @@ public class ExtraStudentController {
     private ExtraStudentService extraStudentService;
 
     @Autowired
-    private NotificationService notificationService;
-
-    @Autowired
-    private SecurityUtils securityUtils;
+    private FileUploadService fileUploadService;
 
     /**
      * Get all extra students with pagination and sorting
@@ -75,19 +72,6 @@ public class ExtraStudentController {
         try {
             ExtraStudentDto createdStudent = extraStudentService.createExtraStudent(request);
             
-            // Notify admin users about new extra student registration
-            try {
-                securityUtils.getCurrentUserId().ifPresent(userId -> {
-                    String studentName = createdStudent.getFirstName() + " " + createdStudent.getLastName();
-                    String studentNameArabic = (createdStudent.getFirstNameArabic() != null ? createdStudent.getFirstNameArabic() : createdStudent.getFirstName()) + 
-                                             " " + (createdStudent.getLastNameArabic() != null ? createdStudent.getLastNameArabic() : createdStudent.getLastName());
-                    notificationService.notifyExtraStudentRegistered(studentName, studentNameArabic, createdStudent.getId(), userId);
-                });
-            } catch (Exception e) {
-                // Log error but don't fail the request
-                System.err.println("Failed to send notification: " + e.getMessage());
-            }
-            
             return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -215,9 +199,37 @@ public class ExtraStudentController {
     }
 
     /**
-     * Upload student photo from camera (base64)
+     * Upload student photo from camera as the raw image bytes, streamed to disk
+     */
+    @PostMapping(value = "/{id}/upload-camera-photo", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> uploadStudentPhotoStream(@PathVariable UUID id, HttpServletRequest request) {
+        if (request.getContentLengthLong() > fileUploadService.getMaxPhotoBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "Photo is too large"));
+        }
+        try {
+            ExtraStudentDto updatedStudent = extraStudentService.uploadStudentPhotoStream(id, request.getInputStream(), request.getContentType());
+            return ResponseEntity.ok(updatedStudent);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Photo upload failed"));
+        }
+    }
+
+    /**
+     * Upload student photo from camera as a multipart file
+     */
+    @PostMapping(value = "/{id}/upload-camera-photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadStudentPhotoFromCameraMultipart(@PathVariable UUID id, @RequestParam("file") MultipartFile file) {
+        return uploadStudentPhoto(id, file);
+    }
+
+    /**
+     * Upload student photo from camera (base64), kept for older clients
      */
-    @PostMapping("/{id}/upload-camera-photo")
+    @PostMapping(value = "/{id}/upload-camera-photo", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> uploadStudentPhotoFromCamera(@PathVariable UUID id, @RequestBody Map<String, String> request) {
         try {
             String base64Data = request.get("base64Data");
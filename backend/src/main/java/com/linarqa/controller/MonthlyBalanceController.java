@@ -1,6 +1,9 @@
 package com.linarqa.controller;
 
+import com.linarqa.entity.User;
+import com.linarqa.service.FinanceDashboardService;
 import com.linarqa.service.MonthlyBalanceService;
+import com.linarqa.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +18,12 @@ public class MonthlyBalanceController {
     @Autowired
     private MonthlyBalanceService monthlyBalanceService;
 
+    @Autowired
+    private FinanceDashboardService financeDashboardService;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
     /**
      * Get monthly balance for a specific month and year
      */
@@ -44,12 +53,12 @@ public class MonthlyBalanceController {
     }
 
     /**
-     * Get current month summary
+     * Get current month summary (served from the dashboard snapshot)
      */
     @GetMapping("/current")
     public ResponseEntity<Map<String, Object>> getCurrentMonthSummary() {
         try {
-            Map<String, Object> summary = monthlyBalanceService.getCurrentMonthSummary();
+            Map<String, Object> summary = financeDashboardService.getCurrentMonthSummary();
             return ResponseEntity.ok(summary);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -57,12 +66,12 @@ public class MonthlyBalanceController {
     }
 
     /**
-     * Get pending payments
+     * Get pending payments (served from the dashboard snapshot)
      */
     @GetMapping("/pending")
     public ResponseEntity<Map<String, Object>> getPendingPayments() {
         try {
-            Map<String, Object> pending = monthlyBalanceService.getPendingPayments();
+            Map<String, Object> pending = financeDashboardService.getPendingPayments();
             return ResponseEntity.ok(pending);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -83,4 +92,58 @@ public class MonthlyBalanceController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Close a past month, freezing its balance (admin only)
+     */
+    @PostMapping("/{year}/{month}/close")
+    public ResponseEntity<Map<String, Object>> closeMonth(
+            @PathVariable int year,
+            @PathVariable int month) {
+        try {
+            return securityUtils.getCurrentUser()
+                .filter(user -> user.getRole() == User.UserRole.OWNER)
+                .map(adminUser -> ResponseEntity.ok(monthlyBalanceService.closeMonth(year, month, adminUser.getId())))
+                .orElse(ResponseEntity.status(403).build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Reopen a closed month so it is computed live again (admin only)
+     */
+    @DeleteMapping("/{year}/{month}/close")
+    public ResponseEntity<Void> reopenMonth(
+            @PathVariable int year,
+            @PathVariable int month) {
+        try {
+            return securityUtils.getCurrentUser()
+                .filter(user -> user.getRole() == User.UserRole.OWNER)
+                .map(adminUser -> {
+                    monthlyBalanceService.reopenMonth(year, month);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.status(403).build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recompute the snapshot of a closed month after corrections (admin only)
+     */
+    @PostMapping("/{year}/{month}/recompute")
+    public ResponseEntity<Map<String, Object>> recomputeMonth(
+            @PathVariable int year,
+            @PathVariable int month) {
+        try {
+            return securityUtils.getCurrentUser()
+                .filter(user -> user.getRole() == User.UserRole.OWNER)
+                .map(adminUser -> ResponseEntity.ok(monthlyBalanceService.recomputeMonth(year, month, adminUser.getId())))
+                .orElse(ResponseEntity.status(403).build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -1,22 +1,28 @@
 package com.linarqa.controller;
 
-import com.linarqa.entity.Notification;
+import com.linarqa.dto.NotificationDto;
+import com.linarqa.dto.NotificationFeedDto;
 import com.linarqa.entity.User;
 import com.linarqa.service.NotificationService;
+import com.linarqa.service.NotificationStreamService;
 import com.linarqa.util.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = "*", allowedHeaders = "*")
@@ -25,6 +31,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @Autowired
     private SecurityUtils securityUtils;
 
@@ -32,7 +41,7 @@ public class NotificationController {
      * Get notifications for the current user
      */
     @GetMapping
-    public ResponseEntity<Page<Notification>> getUserNotifications(
+    public ResponseEntity<Page<NotificationDto>> getUserNotifications(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -45,7 +54,7 @@ public class NotificationController {
                         Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
                     Pageable pageable = PageRequest.of(page, size, sort);
                     
-                    Page<Notification> notifications = notificationService.getUserNotifications(userId, pageable);
+                    Page<NotificationDto> notifications = notificationService.getUserNotifications(userId, pageable);
                     return ResponseEntity.ok(notifications);
                 })
                 .orElse(ResponseEntity.status(401).build());
@@ -54,25 +63,53 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Cursor-paginated feed for the current user; pass the returned nextCursor as before
+     * to scroll further without the cost of deep OFFSET pages
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<NotificationFeedDto> getNotificationFeed(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        try {
+            return securityUtils.getCurrentUserId()
+                .map(userId -> ResponseEntity.ok(notificationService.getNotificationFeed(userId, before, size)))
+                .orElse(ResponseEntity.status(401).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Server-sent event stream of new notifications and unread-count changes for the current user.
+     * Clients send Last-Event-ID on reconnect and receive the notifications they missed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        return securityUtils.getCurrentUserId()
+            .map(userId -> ResponseEntity.ok(notificationStreamService.subscribe(userId, lastEventId)))
+            .orElse(ResponseEntity.status(401).build());
+    }
+
     /**
      * Get unread notifications for the current user
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications() {
+    public ResponseEntity<List<NotificationDto>> getUnreadNotifications() {
         
         try {
-            System.out.println("🔔 NotificationController.getUnreadNotifications() called");
             return securityUtils.getCurrentUserId()
                 .map(userId -> {
-                    System.out.println("👤 Getting notifications for user ID: " + userId);
-                    List<Notification> notifications = notificationService.getUnreadNotifications(userId);
-                    System.out.println("📋 Found " + notifications.size() + " unread notifications for user");
+                    List<NotificationDto> notifications = notificationService.getUnreadNotifications(userId);
+                    log.debug("Found {} unread notifications for user {}", notifications.size(), userId);
                     return ResponseEntity.ok(notifications);
                 })
                 .orElse(ResponseEntity.status(401).build());
         } catch (Exception e) {
-            System.err.println("❌ Error in getUnreadNotifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to load unread notifications", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -121,12 +158,14 @@ public class NotificationController {
      * Mark all notifications as read for the current user
      */
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead() {
+    public ResponseEntity<Map<String, Integer>> markAllAsRead() {
         try {
             return securityUtils.getCurrentUserId()
                 .map(userId -> {
-                    notificationService.markAllAsRead(userId);
-                    return ResponseEntity.ok().<Void>build();
+                    int updated = notificationService.markAllAsRead(userId);
+                    Map<String, Integer> response = new HashMap<>();
+                    response.put("updated", updated);
+                    return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.status(401).build());
         } catch (Exception e) {
@@ -135,10 +174,11 @@ public class NotificationController {
     }
 
     /**
-     * Get admin notifications (for admin users only)
+     * Get admin notifications (for admin users only); every admin receives every admin
+     * notification, so this is the calling admin's inbox
      */
     @GetMapping("/admin")
-    public ResponseEntity<Page<Notification>> getAdminNotifications(
+    public ResponseEntity<Page<NotificationDto>> getAdminNotifications(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -153,7 +193,7 @@ public class NotificationController {
                         Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
                     Pageable pageable = PageRequest.of(page, size, sort);
                     
-                    Page<Notification> notifications = notificationService.getAdminNotifications(pageable);
+                    Page<NotificationDto> notifications = notificationService.getUserNotifications(adminUser.getId(), pageable);
                     return ResponseEntity.ok(notifications);
                 })
                 .orElse(ResponseEntity.status(403).build());
@@ -162,30 +202,41 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Cursor-paginated feed of the calling admin's notifications
+     */
+    @GetMapping("/admin/feed")
+    public ResponseEntity<NotificationFeedDto> getAdminNotificationFeed(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        try {
+            return securityUtils.getCurrentUser()
+                .filter(user -> user.getRole() == User.UserRole.OWNER)
+                .map(adminUser -> ResponseEntity.ok(notificationService.getNotificationFeed(adminUser.getId(), before, size)))
+                .orElse(ResponseEntity.status(403).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get unread admin notifications
      */
     @GetMapping("/admin/unread")
-    public ResponseEntity<List<Notification>> getUnreadAdminNotifications() {
+    public ResponseEntity<List<NotificationDto>> getUnreadAdminNotifications() {
         try {
-            System.out.println("🔔 NotificationController.getUnreadAdminNotifications() called");
-            
             // Check if current user is admin
             return securityUtils.getCurrentUser()
                 .filter(user -> user.getRole() == User.UserRole.OWNER)
                 .map(adminUser -> {
-                    System.out.println("✅ Admin user authenticated: " + adminUser.getEmail());
-                    List<Notification> notifications = notificationService.getUnreadAdminNotifications();
-                    System.out.println("📋 Found " + notifications.size() + " unread admin notifications");
+                    List<NotificationDto> notifications = notificationService.getUnreadNotifications(adminUser.getId());
+                    log.debug("Found {} unread admin notifications for {}", notifications.size(), adminUser.getEmail());
                     return ResponseEntity.ok(notifications);
                 })
-                .orElseGet(() -> {
-                    System.out.println("❌ Access denied - user is not admin or not authenticated");
-                    return ResponseEntity.status(403).build();
-                });
+                .orElse(ResponseEntity.status(403).build());
         } catch (Exception e) {
-            System.err.println("❌ Error in getUnreadAdminNotifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to load unread admin notifications", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -200,7 +251,7 @@ public class NotificationController {
             return securityUtils.getCurrentUser()
                 .filter(user -> user.getRole() == User.UserRole.OWNER)
                 .map(adminUser -> {
-                    long count = notificationService.getUnreadAdminNotificationCount();
+                    long count = notificationService.getUnreadNotificationCount(adminUser.getId());
                     Map<String, Long> response = new HashMap<>();
                     response.put("count", count);
                     return ResponseEntity.ok(response);
@@ -212,7 +263,7 @@ public class NotificationController {
     }
 
     /**
-     * Delete a notification (admin only)
+     * Delete a notification from the current admin's list (admin only)
      */
     @DeleteMapping("/{notificationId}")
     public ResponseEntity<Void> deleteNotification(@PathVariable UUID notificationId) {
@@ -221,7 +272,7 @@ public class NotificationController {
             return securityUtils.getCurrentUser()
                 .filter(user -> user.getRole() == User.UserRole.OWNER)
                 .map(adminUser -> {
-                    notificationService.deleteNotification(notificationId);
+                    notificationService.deleteNotification(notificationId, adminUser.getId());
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.status(403).build());
@@ -233,17 +284,19 @@ public class NotificationController {
     }
 
     /**
-     * Delete multiple notifications (admin only)
+     * Delete multiple notifications from the current admin's list (admin only)
      */
     @DeleteMapping("/bulk")
-    public ResponseEntity<Void> deleteMultipleNotifications(@RequestBody List<UUID> notificationIds) {
+    public ResponseEntity<Map<String, Integer>> deleteMultipleNotifications(@RequestBody List<UUID> notificationIds) {
         try {
             // Check if current user is admin
             return securityUtils.getCurrentUser()
                 .filter(user -> user.getRole() == User.UserRole.OWNER)
                 .map(adminUser -> {
-                    notificationService.deleteMultipleNotifications(notificationIds);
-                    return ResponseEntity.ok().<Void>build();
+                    int deleted = notificationService.deleteMultipleNotifications(notificationIds, adminUser.getId());
+                    Map<String, Integer> response = new HashMap<>();
+                    response.put("deleted", deleted);
+                    return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.status(403).build());
         } catch (RuntimeException e) {
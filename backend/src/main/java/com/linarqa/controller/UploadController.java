@@ -0,0 +1,139 @@
+package com.linarqa.controller;
+
+import com.linarqa.service.PhotoStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded files with validators and cache headers: content-addressed photos (and their
+ * variants) never change, so they get a hash ETag and a one-year immutable Cache-Control; other
+ * uploads get a size/mtime ETag and a short max-age. Range requests are answered with 206, and
+ * large whole-file GETs are handed to Tomcat's sendfile so the bytes never pass through the JVM.
+ */
+@RestController
+public class UploadController {
+
+    // Blob name without extension: <sha256> or <sha256>_<variant size>
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(_\\d+)?");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Value("${uploads.cache.mutable-max-age-seconds:3600}")
+    private long mutableMaxAgeSeconds;
+
+    @Value("${uploads.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    @GetMapping({"/api/uploads/**", "/uploads/**"})
+    public ResponseEntity<Resource> serveUpload(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(request);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!attributes.isRegularFile()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String filename = file.getFileName().toString();
+        String baseName = filename.contains(".") ? filename.substring(0, filename.lastIndexOf('.')) : filename;
+        Path photoRoot = photoStorageService.getPhotoRoot().toAbsolutePath().normalize();
+        boolean immutable = file.startsWith(photoRoot) && CONTENT_ADDRESSED.matcher(baseName).matches();
+        String etag = immutable
+            ? "\"" + baseName + "\""
+            : "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        CacheControl cacheControl = immutable
+            ? IMMUTABLE
+            : CacheControl.maxAge(mutableMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+
+        // Sets ETag and Last-Modified on the response, and answers 304 when the client's copy is current
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (canSendfile(request, size)) {
+            response.setContentType(mediaType.toString());
+            response.setContentLengthLong(size);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return null;
+        }
+
+        // Range headers are turned into 206 partial responses by the Resource message converter
+        return ResponseEntity.ok()
+            .contentType(mediaType)
+            .body(new FileSystemResource(file));
+    }
+
+    private boolean canSendfile(HttpServletRequest request, long size) {
+        return "GET".equals(request.getMethod())
+            && request.getHeader(HttpHeaders.RANGE) == null
+            && size >= sendfileMinBytes
+            && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED));
+    }
+
+    /**
+     * File under uploads/ for the request path, or null for paths escaping the directory and
+     * dot-files (uploads still being written)
+     */
+    private Path resolve(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        String relative;
+        if (path.startsWith("/api/uploads/")) {
+            relative = path.substring("/api/uploads/".length());
+        } else if (path.startsWith("/uploads/")) {
+            relative = path.substring("/uploads/".length());
+        } else {
+            return null;
+        }
+        Path uploadRoot = photoStorageService.getUploadRoot().toAbsolutePath().normalize();
+        Path file = uploadRoot.resolve(relative).normalize();
+        if (!file.startsWith(uploadRoot) || file.equals(uploadRoot) || file.getFileName().toString().startsWith(".")) {
+            return null;
+        }
+        return file;
+    }
+}
@@ -1,8 +1,11 @@
 package com.linarqa.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.linarqa.entity.ExtraStudent;
+import com.linarqa.util.PhotoVariants;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 public class ExtraStudentDto {
@@ -115,6 +118,13 @@ public class ExtraStudentDto {
         this.photoUrl = photoUrl;
     }
     
+    // Resized copies of the photo keyed by longest edge in pixels, for avatars and lists; the URLs
+    // are listed before the background generation finishes, so clients fall back to photoUrl on 404
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<Integer, String> getPhotoVariants() {
+        return PhotoVariants.urlsFor(photoUrl);
+    }
+    
     public String getResponsibleName() {
         return responsibleName;
     }
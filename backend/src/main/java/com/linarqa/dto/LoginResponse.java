@@ -11,4 +11,5 @@ import lombok.NoArgsConstructor;
 public class LoginResponse {
     private String token;
     private User user;
+    private String refreshToken;
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.linarqa.dto;
 
 import com.linarqa.entity.Notification;
+import com.linarqa.entity.NotificationReceipt;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,12 +28,36 @@ public class NotificationDto {
     private String targetUserEmail;
     private String relatedEntityType;
     private UUID relatedEntityId;
+    private Integer aggregateCount;
+    private LocalDateTime aggregateSince;
     private boolean isRead;
     private LocalDateTime readAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public static NotificationDto fromEntity(Notification notification) {
+    /**
+     * Content-level view of a notification; isRead tells whether every recipient has read it
+     */
+    public static NotificationDto fromEntity(Notification notification, boolean isRead) {
+        return contentBuilder(notification)
+                .status(isRead ? Notification.NotificationStatus.READ : Notification.NotificationStatus.UNREAD)
+                .isRead(isRead)
+                .build();
+    }
+
+    /**
+     * One recipient's view of a notification, with that recipient's read state
+     */
+    public static NotificationDto fromReceipt(NotificationReceipt receipt) {
+        return contentBuilder(receipt.getNotification())
+                .status(receipt.isRead() ? Notification.NotificationStatus.READ : Notification.NotificationStatus.UNREAD)
+                .targetUserEmail(receipt.getUser() != null ? receipt.getUser().getEmail() : null)
+                .isRead(receipt.isRead())
+                .readAt(receipt.getReadAt())
+                .build();
+    }
+
+    private static NotificationDtoBuilder contentBuilder(Notification notification) {
         String createdByName = null;
         String createdByNameArabic = null;
         String createdByEmail = null;
@@ -43,28 +68,21 @@ public class NotificationDto {
             createdByNameArabic = notification.getCreatedBy().getFullNameArabic();
         }
         
-        // Use the original message (staff name is already included in the message from NotificationService)
-        String enhancedMessage = notification.getMessage();
-        String enhancedMessageArabic = notification.getMessageArabic();
-        
         return NotificationDto.builder()
                 .id(notification.getId())
                 .title(notification.getTitle())
                 .titleArabic(notification.getTitleArabic())
-                .message(enhancedMessage)
-                .messageArabic(enhancedMessageArabic)
+                .message(notification.getMessage())
+                .messageArabic(notification.getMessageArabic())
                 .type(notification.getType())
-                .status(notification.getStatus())
                 .createdByEmail(createdByEmail)
                 .createdByName(createdByName)
                 .createdByNameArabic(createdByNameArabic)
-                .targetUserEmail(notification.getTargetUser() != null ? notification.getTargetUser().getEmail() : null)
                 .relatedEntityType(notification.getRelatedEntityType())
                 .relatedEntityId(notification.getRelatedEntityId())
-                .isRead(notification.isRead())
-                .readAt(notification.getReadAt())
+                .aggregateCount(notification.getAggregateCount())
+                .aggregateSince(notification.getAggregateSince())
                 .createdAt(notification.getCreatedAt())
-                .updatedAt(notification.getUpdatedAt())
-                .build();
+                .updatedAt(notification.getUpdatedAt());
     }
 }
@@ -0,0 +1,21 @@
+package com.linarqa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's notification feed; pass nextCursor back as `before` for the next page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeedDto {
+    private List<NotificationDto> notifications;
+    private String nextCursor;
+    private boolean hasMore;
+}
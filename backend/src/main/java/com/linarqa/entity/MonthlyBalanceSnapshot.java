@@ -0,0 +1,62 @@
+package com.linarqa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "monthly_balance_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_monthly_balance_snapshots_year_month", columnNames = {"balance_year", "balance_month"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class MonthlyBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "balance_month", nullable = false)
+    private Integer month;
+
+    @Column(name = "total_income", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalIncome;
+
+    @Column(name = "total_salaries", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalSalaries;
+
+    @Column(name = "net_income", nullable = false, precision = 12, scale = 2)
+    private BigDecimal netIncome;
+
+    // Full balance map (income by type and course, salaries, provisional income) as computed at close time
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "closed_by_user_id")
+    private UUID closedByUserId;
+
+    @Column(name = "closed_at", nullable = false)
+    private LocalDateTime closedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,8 +13,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Notification content, stored once per event; per-recipient read state lives in {@link NotificationReceipt}
+ */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_type_created", columnList = "type, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,33 +47,22 @@ public class Notification {
     @Column(nullable = false)
     private NotificationType type;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    @Builder.Default
-    private NotificationStatus status = NotificationStatus.UNREAD;
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_user_id")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User createdBy;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "target_user_id")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-    private User targetUser;
-
     @Column(name = "related_entity_type")
     private String relatedEntityType; // STUDENT, EXTRA_STUDENT, PAYMENT, EXTRA_PAYMENT
 
     @Column(name = "related_entity_id")
     private UUID relatedEntityId;
 
-    @Column(name = "is_read", nullable = false)
-    @Builder.Default
-    private boolean isRead = false;
+    @Column(name = "aggregate_count")
+    private Integer aggregateCount; // Set on digests: number of events folded into this notification
 
-    @Column(name = "read_at")
-    private LocalDateTime readAt;
+    @Column(name = "aggregate_since")
+    private LocalDateTime aggregateSince; // Set on digests: when the first folded event occurred
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -94,10 +88,4 @@ public class Notification {
         READ,
         ARCHIVED
     }
-
-    public void markAsRead() {
-        this.isRead = true;
-        this.status = NotificationStatus.READ;
-        this.readAt = LocalDateTime.now();
-    }
 }
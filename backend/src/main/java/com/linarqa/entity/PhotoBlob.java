@@ -0,0 +1,40 @@
+package com.linarqa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored photo file, named by the SHA-256 of its content; identical uploads share the
+ * blob and ref_count tracks how many photo URLs point at it
+ */
+@Entity
+@Table(name = "photo_blobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class PhotoBlob {
+
+    /** Path under the photo root, e.g. 3f/a2/3fa2...e1.jpg */
+    @Id
+    @Column(name = "storage_key", length = 100)
+    private String storageKey;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package com.linarqa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Salary of a staff member over [effectiveFrom, effectiveTo). An open row (no effectiveTo)
+ * is the current salary; inactive periods have no row.
+ */
+@Entity
+@Table(name = "staff_salary_history", indexes = {
+    @Index(name = "idx_staff_salary_history_interval", columnList = "effective_from, effective_to"),
+    @Index(name = "idx_staff_salary_history_staff", columnList = "staff_id, effective_to")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class StaffSalaryHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // Kept without a foreign key so payroll history survives staff deletion
+    @Column(name = "staff_id", nullable = false)
+    private UUID staffId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "staff_type", nullable = false)
+    private Staff.StaffType staffType;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal salary;
+
+    @Column(name = "effective_from", nullable = false)
+    private LocalDate effectiveFrom;
+
+    @Column(name = "effective_to")
+    private LocalDate effectiveTo;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,7 @@
 package com.linarqa.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.linarqa.util.PhotoVariants;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +14,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -122,4 +125,14 @@ public class Student {
     public enum StudentStatus {
         ACTIVE, LEFT
     }
-} 
\ No newline at end of file
+
+    /**
+     * Resized copies of the photo keyed by longest edge in pixels, for avatars and lists; listed
+     * whether or not generation has finished, so a URL can 404 until then
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<Integer, String> getPhotoVariants() {
+        return PhotoVariants.urlsFor(photoUrl);
+    }
+}
@@ -0,0 +1,65 @@
+package com.linarqa.event;
+
+import com.linarqa.entity.Notification;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published by services when a business write should notify the admin users;
+ * dispatched to the notification pipeline only once the transaction commits
+ */
+@Getter
+public class NotificationEvent {
+
+    private final Notification.NotificationType type;
+    private final String subjectName;
+    private final String subjectNameArabic;
+    private final String amount;
+    private final UUID relatedEntityId;
+    private final UUID actorUserId;
+    private final long occurredAtMillis;
+    private final int count;
+
+    public NotificationEvent(Notification.NotificationType type, String subjectName, String subjectNameArabic,
+                             String amount, UUID relatedEntityId, UUID actorUserId) {
+        this(type, subjectName, subjectNameArabic, amount, relatedEntityId, actorUserId, System.currentTimeMillis(), 1);
+    }
+
+    private NotificationEvent(Notification.NotificationType type, String subjectName, String subjectNameArabic,
+                              String amount, UUID relatedEntityId, UUID actorUserId, long occurredAtMillis, int count) {
+        this.type = type;
+        this.subjectName = subjectName;
+        this.subjectNameArabic = subjectNameArabic;
+        this.amount = amount;
+        this.relatedEntityId = relatedEntityId;
+        this.actorUserId = actorUserId;
+        this.occurredAtMillis = occurredAtMillis;
+        this.count = count;
+    }
+
+    /**
+     * Build an event for a student, falling back to the latin name parts when the arabic ones are missing
+     */
+    public static NotificationEvent forStudent(Notification.NotificationType type,
+                                               String firstName, String lastName,
+                                               String firstNameArabic, String lastNameArabic,
+                                               String amount, UUID relatedEntityId, UUID actorUserId) {
+        String name = firstName + " " + lastName;
+        String nameArabic = (firstNameArabic != null ? firstNameArabic : firstName) + " " +
+                            (lastNameArabic != null ? lastNameArabic : lastName);
+        return new NotificationEvent(type, name, nameArabic, amount, relatedEntityId, actorUserId);
+    }
+
+    /**
+     * Build one aggregate event standing for count events of a type, the first of which occurred at the given time
+     */
+    public static NotificationEvent digest(Notification.NotificationType type, int count,
+                                           UUID actorUserId, long firstOccurredAtMillis) {
+        return new NotificationEvent(type, null, null, null, null, actorUserId, firstOccurredAtMillis, count);
+    }
+
+    public boolean isDigest() {
+        return count > 1;
+    }
+}
@@ -0,0 +1,59 @@
+package com.linarqa.event;
+
+import com.linarqa.dto.NotificationDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after notifications are created, read or deleted so in-memory counters
+ * and connected clients can be updated
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationsChangedEvent {
+
+    /** New notifications keyed by target user id */
+    private final Map<UUID, List<NotificationDto>> created;
+
+    /** Change of each user's unread count */
+    private final Map<UUID, Long> unreadDeltas;
+
+    /** Change of the total number of notifications */
+    private final long totalDelta;
+
+    /**
+     * Users whose unread count may have changed
+     */
+    public Set<UUID> getAffectedUserIds() {
+        Set<UUID> userIds = new HashSet<>(unreadDeltas.keySet());
+        userIds.addAll(created.keySet());
+        return userIds;
+    }
+
+    public static NotificationsChangedEvent created(Map<UUID, List<NotificationDto>> created) {
+        Map<UUID, Long> unreadDeltas = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<UUID, List<NotificationDto>> entry : created.entrySet()) {
+            unreadDeltas.put(entry.getKey(), (long) entry.getValue().size());
+            total += entry.getValue().size();
+        }
+        return new NotificationsChangedEvent(created, unreadDeltas, total);
+    }
+
+    public static NotificationsChangedEvent read(UUID userId, long count) {
+        return new NotificationsChangedEvent(Map.of(), Map.of(userId, -count), 0);
+    }
+
+    public static NotificationsChangedEvent deleted(Map<UUID, Long> unreadRemoved, long totalRemoved) {
+        Map<UUID, Long> unreadDeltas = new HashMap<>();
+        unreadRemoved.forEach((userId, count) -> unreadDeltas.put(userId, -count));
+        return new NotificationsChangedEvent(Map.of(), unreadDeltas, -totalRemoved);
+    }
+}
@@ -0,0 +1,19 @@
+package com.linarqa.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after kindergarten or extra course payments are created or change status
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentChangedEvent {
+
+    private final PaymentSource source;
+
+    public enum PaymentSource {
+        PAYMENT,
+        EXTRA_PAYMENT
+    }
+}
@@ -32,4 +32,26 @@ public interface ExtraPaymentRepository extends JpaRepository<ExtraPayment, UUID
     List<ExtraPayment> findByPaidDateBetweenAndStatus(LocalDate startDate, LocalDate endDate, ExtraPayment.PaymentStatus status);
     List<ExtraPayment> findByStatusIn(List<ExtraPayment.PaymentStatus> statuses);
     List<ExtraPayment> findByDueDateBetweenAndStatusIn(LocalDate startDate, LocalDate endDate, List<ExtraPayment.PaymentStatus> statuses);
+    
+    /**
+     * Rows of [month, course title, count, amount] for payments with the given status paid in [startDate, endDate]
+     */
+    @Query("SELECT MONTH(ep.paidDate), c.title, COUNT(ep), SUM(ep.amount) FROM ExtraPayment ep JOIN ep.extraCourse c " +
+           "WHERE ep.status = :status AND ep.paidDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY MONTH(ep.paidDate), c.title")
+    List<Object[]> sumByPaidMonthAndCourse(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("status") ExtraPayment.PaymentStatus status);
+    
+    /**
+     * Rows of [month, count, amount] for payments in the given statuses due in [startDate, endDate]
+     */
+    @Query("SELECT MONTH(ep.dueDate), COUNT(ep), SUM(ep.amount) FROM ExtraPayment ep " +
+           "WHERE ep.status IN :statuses AND ep.dueDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY MONTH(ep.dueDate)")
+    List<Object[]> sumByDueMonthAndStatusIn(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("statuses") List<ExtraPayment.PaymentStatus> statuses);
+    
+    /**
+     * Single row of [count, amount] for payments in the given statuses
+     */
+    @Query("SELECT COUNT(ep), SUM(ep.amount) FROM ExtraPayment ep WHERE ep.status IN :statuses")
+    List<Object[]> sumByStatusIn(@Param("statuses") List<ExtraPayment.PaymentStatus> statuses);
 }
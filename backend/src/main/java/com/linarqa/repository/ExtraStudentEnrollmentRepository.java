@@ -2,8 +2,11 @@ package com.linarqa.repository;
 
 import com.linarqa.entity.ExtraStudentEnrollment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,4 +24,16 @@ public interface ExtraStudentEnrollmentRepository extends JpaRepository<ExtraStu
     List<ExtraStudentEnrollment> findByCourseIdAndStatus(UUID courseId, ExtraStudentEnrollment.EnrollmentStatus status);
     
     boolean existsByExtraStudentIdAndCourseIdAndStatus(UUID extraStudentId, UUID courseId, ExtraStudentEnrollment.EnrollmentStatus status);
+    
+    /**
+     * Find enrollments with the given status that have no bill due in [startDate, endDate],
+     * with student and course fetched in the same query
+     */
+    @Query("SELECT e FROM ExtraStudentEnrollment e JOIN FETCH e.extraStudent s JOIN FETCH e.course c " +
+           "WHERE e.status = :status AND NOT EXISTS (" +
+           "SELECT 1 FROM ExtraPayment ep WHERE ep.extraStudent = s AND ep.extraCourse = c " +
+           "AND ep.dueDate BETWEEN :startDate AND :endDate)")
+    List<ExtraStudentEnrollment> findUnbilledByStatusAndDueDateBetween(@Param("status") ExtraStudentEnrollment.EnrollmentStatus status,
+                                                                       @Param("startDate") LocalDate startDate,
+                                                                       @Param("endDate") LocalDate endDate);
 }
@@ -8,12 +8,18 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExtraStudentRepository extends JpaRepository<ExtraStudent, UUID> {
     
     List<ExtraStudent> findByStatus(ExtraStudent.StudentStatus status);
     
+    List<ExtraStudent> findByPhotoUrlContaining(String fragment);
+    
+    @Query("SELECT e.photoUrl FROM ExtraStudent e WHERE e.photoUrl IS NOT NULL")
+    Stream<String> streamPhotoUrls();
+    
     @Query("SELECT e FROM ExtraStudent e WHERE " +
            "LOWER(e.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(e.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -29,4 +35,23 @@ public interface ExtraStudentRepository extends JpaRepository<ExtraStudent, UUID
            "e.responsiblePhone LIKE CONCAT('%', :searchTerm, '%'))")
     List<ExtraStudent> findByStatusAndSearchTerm(@Param("status") ExtraStudent.StudentStatus status, 
                                                 @Param("searchTerm") String searchTerm);
+    
+    /**
+     * MySQL FULLTEXT (ngram) search over names, responsible and phone, most relevant first;
+     * the query is a boolean-mode expression from FullTextQuery
+     */
+    @Query(value = "SELECT * FROM extra_students WHERE " +
+           "MATCH(first_name, last_name, first_name_arabic, last_name_arabic, responsible_name, responsible_name_arabic, responsible_phone) " +
+           "AGAINST (:query IN BOOLEAN MODE) " +
+           "ORDER BY MATCH(first_name, last_name, first_name_arabic, last_name_arabic, responsible_name, responsible_name_arabic, responsible_phone) " +
+           "AGAINST (:query IN BOOLEAN MODE) DESC", nativeQuery = true)
+    List<ExtraStudent> fullTextSearch(@Param("query") String query);
+    
+    @Query(value = "SELECT * FROM extra_students WHERE " +
+           "(:status IS NULL OR status = :status) AND " +
+           "MATCH(first_name, last_name, first_name_arabic, last_name_arabic, responsible_name, responsible_name_arabic, responsible_phone) " +
+           "AGAINST (:query IN BOOLEAN MODE) " +
+           "ORDER BY MATCH(first_name, last_name, first_name_arabic, last_name_arabic, responsible_name, responsible_name_arabic, responsible_phone) " +
+           "AGAINST (:query IN BOOLEAN MODE) DESC", nativeQuery = true)
+    List<ExtraStudent> fullTextSearchByStatus(@Param("status") String status, @Param("query") String query);
 }
@@ -0,0 +1,19 @@
+package com.linarqa.repository;
+
+import com.linarqa.entity.MonthlyBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MonthlyBalanceSnapshotRepository extends JpaRepository<MonthlyBalanceSnapshot, UUID> {
+    
+    Optional<MonthlyBalanceSnapshot> findByYearAndMonth(Integer year, Integer month);
+    
+    List<MonthlyBalanceSnapshot> findByYear(Integer year);
+    
+    void deleteByYearAndMonth(Integer year, Integer month);
+}
@@ -0,0 +1,102 @@
+package com.linarqa.repository;
+
+import com.linarqa.entity.NotificationReceipt;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationReceiptRepository extends JpaRepository<NotificationReceipt, UUID> {
+
+    /**
+     * Page of a user's receipts with the notification content and creator
+     */
+    @Query(value = "SELECT r FROM NotificationReceipt r JOIN FETCH r.notification n LEFT JOIN FETCH n.createdBy WHERE r.user.id = :userId",
+           countQuery = "SELECT COUNT(r) FROM NotificationReceipt r WHERE r.user.id = :userId")
+    Page<NotificationReceipt> findByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    /**
+     * First page of a user's feed, newest first with the notification id as tie-breaker
+     */
+    @Query("SELECT r FROM NotificationReceipt r JOIN FETCH r.notification n LEFT JOIN FETCH n.createdBy " +
+           "WHERE r.user.id = :userId ORDER BY r.createdAt DESC, r.notification.id DESC")
+    List<NotificationReceipt> findFeed(@Param("userId") UUID userId, Pageable limit);
+
+    /**
+     * Next page of a user's feed after the (createdAt, notificationId) cursor; seeks on the
+     * (user_id, created_at, notification_id) index so deep pages cost the same as the first
+     */
+    @Query("SELECT r FROM NotificationReceipt r JOIN FETCH r.notification n LEFT JOIN FETCH n.createdBy " +
+           "WHERE r.user.id = :userId AND (r.createdAt < :createdAt " +
+           "OR (r.createdAt = :createdAt AND r.notification.id < :notificationId)) " +
+           "ORDER BY r.createdAt DESC, r.notification.id DESC")
+    List<NotificationReceipt> findFeedBefore(@Param("userId") UUID userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("notificationId") UUID notificationId,
+                                             Pageable limit);
+
+    /**
+     * Unread receipts of a user, newest first, with the notification content and creator
+     */
+    @Query("SELECT r FROM NotificationReceipt r JOIN FETCH r.notification n LEFT JOIN FETCH n.createdBy " +
+           "WHERE r.user.id = :userId AND r.isRead = false ORDER BY r.createdAt DESC")
+    List<NotificationReceipt> findUnreadByUserId(@Param("userId") UUID userId);
+
+    /**
+     * The receipt of one notification for one user
+     */
+    @Query("SELECT r FROM NotificationReceipt r WHERE r.notification.id = :notificationId AND r.user.id = :userId")
+    Optional<NotificationReceipt> findByNotificationIdAndUserId(@Param("notificationId") UUID notificationId,
+                                                                @Param("userId") UUID userId);
+
+    /**
+     * All receipts of a notification
+     */
+    @Query("SELECT r FROM NotificationReceipt r WHERE r.notification.id = :notificationId")
+    List<NotificationReceipt> findByNotificationId(@Param("notificationId") UUID notificationId);
+
+    /**
+     * Unread receipt count per user as [userId, count] rows
+     */
+    @Query("SELECT r.user.id, COUNT(r) FROM NotificationReceipt r WHERE r.isRead = false GROUP BY r.user.id")
+    List<Object[]> countUnreadGroupedByUser();
+
+    /**
+     * Unread receipt count per user among the given notifications as [userId, count] rows
+     */
+    @Query("SELECT r.user.id, COUNT(r) FROM NotificationReceipt r WHERE r.notification.id IN :notificationIds " +
+           "AND r.isRead = false GROUP BY r.user.id")
+    List<Object[]> countUnreadGroupedByUserForNotifications(@Param("notificationIds") Collection<UUID> notificationIds);
+
+    /**
+     * Mark every unread receipt of a user as read in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE NotificationReceipt r SET r.isRead = true, r.readAt = :now WHERE r.user.id = :userId AND r.isRead = false")
+    int markAllAsReadForUser(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete the receipts of the given notifications in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM NotificationReceipt r WHERE r.notification.id IN :notificationIds")
+    int deleteByNotificationIdIn(@Param("notificationIds") Collection<UUID> notificationIds);
+
+    /**
+     * Delete one user's receipts of the given notifications in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM NotificationReceipt r WHERE r.user.id = :userId AND r.notification.id IN :notificationIds")
+    int deleteByUserIdAndNotificationIdIn(@Param("userId") UUID userId,
+                                          @Param("notificationIds") Collection<UUID> notificationIds);
+}
@@ -2,13 +2,15 @@ package com.linarqa.repository;
 
 import com.linarqa.entity.Notification;
 import com.linarqa.entity.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,19 +18,18 @@ import java.util.UUID;
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
     /**
-     * Find all notifications for a specific user
+     * Find all notifications, newest first, with their creator
      */
-    Page<Notification> findByTargetUserOrderByCreatedAtDesc(User targetUser, Pageable pageable);
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.createdBy ORDER BY n.createdAt DESC")
+    List<Notification> findAllWithCreator();
 
     /**
-     * Find unread notifications for a specific user
+     * Find notifications that at least one recipient has not read yet, newest first
      */
-    List<Notification> findByTargetUserAndIsReadFalseOrderByCreatedAtDesc(User targetUser);
-
-    /**
-     * Count unread notifications for a specific user
-     */
-    long countByTargetUserAndIsReadFalse(User targetUser);
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.createdBy WHERE EXISTS " +
+           "(SELECT r.id FROM NotificationReceipt r WHERE r.notification = n AND r.isRead = false) " +
+           "ORDER BY n.createdAt DESC")
+    List<Notification> findUnreadByAnyRecipient();
 
     /**
      * Find notifications by type
@@ -41,31 +42,23 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     List<Notification> findByRelatedEntityTypeAndRelatedEntityId(String entityType, UUID entityId);
 
     /**
-     * Find notifications for admin users (users with OWNER role)
-     */
-    @Query("SELECT n FROM Notification n WHERE n.targetUser.role = 'OWNER' ORDER BY n.createdAt DESC")
-    Page<Notification> findAdminNotifications(Pageable pageable);
-
-    /**
-     * Find unread notifications for admin users
-     */
-    @Query("SELECT n FROM Notification n WHERE n.targetUser.role = 'OWNER' AND n.isRead = false ORDER BY n.createdAt DESC")
-    List<Notification> findUnreadAdminNotifications();
-
-    /**
-     * Count unread notifications for admin users
+     * Find notifications created by a specific user
      */
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.targetUser.role = 'OWNER' AND n.isRead = false")
-    long countUnreadAdminNotifications();
+    List<Notification> findByCreatedByOrderByCreatedAtDesc(User createdBy);
 
     /**
-     * Find notifications created by a specific user
+     * Delete the given notifications no recipient has a receipt for any more, in one statement
      */
-    List<Notification> findByCreatedByOrderByCreatedAtDesc(User createdBy);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids " +
+           "AND NOT EXISTS (SELECT r.id FROM NotificationReceipt r WHERE r.notification.id = n.id)")
+    int deleteWithoutReceiptsByIdIn(@Param("ids") Collection<UUID> ids);
 
     /**
-     * Delete old notifications (older than specified days)
+     * Ids of notifications of a type created before the cutoff, in primary key order
      */
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate")
-    void deleteOldNotifications(@Param("cutoffDate") java.time.LocalDateTime cutoffDate);
+    @Query("SELECT n.id FROM Notification n WHERE n.type = :type AND n.createdAt < :cutoff ORDER BY n.id")
+    List<UUID> findIdsByTypeCreatedBefore(@Param("type") Notification.NotificationType type,
+                                          @Param("cutoff") LocalDateTime cutoff,
+                                          Pageable pageable);
 }
@@ -28,4 +28,26 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     List<Payment> findByPaidDateBetweenAndStatus(LocalDate startDate, LocalDate endDate, Payment.PaymentStatus status);
     List<Payment> findByStatusIn(List<Payment.PaymentStatus> statuses);
     List<Payment> findByDueDateBetweenAndStatusIn(LocalDate startDate, LocalDate endDate, List<Payment.PaymentStatus> statuses);
-} 
\ No newline at end of file
+    
+    /**
+     * Rows of [month, type, count, amount] for payments with the given status paid in [startDate, endDate]
+     */
+    @Query("SELECT MONTH(p.paidDate), p.type, COUNT(p), SUM(p.amount) FROM Payment p " +
+           "WHERE p.status = :status AND p.paidDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY MONTH(p.paidDate), p.type")
+    List<Object[]> sumByPaidMonthAndType(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("status") Payment.PaymentStatus status);
+    
+    /**
+     * Rows of [month, count, amount] for payments in the given statuses due in [startDate, endDate]
+     */
+    @Query("SELECT MONTH(p.dueDate), COUNT(p), SUM(p.amount) FROM Payment p " +
+           "WHERE p.status IN :statuses AND p.dueDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY MONTH(p.dueDate)")
+    List<Object[]> sumByDueMonthAndStatusIn(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("statuses") List<Payment.PaymentStatus> statuses);
+    
+    /**
+     * Single row of [count, amount] for payments in the given statuses
+     */
+    @Query("SELECT COUNT(p), SUM(p.amount) FROM Payment p WHERE p.status IN :statuses")
+    List<Object[]> sumByStatusIn(@Param("statuses") List<Payment.PaymentStatus> statuses);
+}
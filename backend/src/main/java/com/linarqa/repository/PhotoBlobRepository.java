@@ -0,0 +1,31 @@
+package com.linarqa.repository;
+
+import com.linarqa.entity.PhotoBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, String> {
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PhotoBlob b SET b.refCount = b.refCount + 1 WHERE b.storageKey = :storageKey")
+    int incrementRefCount(@Param("storageKey") String storageKey);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PhotoBlob b SET b.refCount = b.refCount - 1 WHERE b.storageKey = :storageKey AND b.refCount > 0")
+    int decrementRefCount(@Param("storageKey") String storageKey);
+
+    /**
+     * Drop the row once nothing references the blob; 1 means the file can be deleted
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PhotoBlob b WHERE b.storageKey = :storageKey AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("storageKey") String storageKey);
+}
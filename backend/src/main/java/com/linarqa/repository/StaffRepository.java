@@ -2,6 +2,8 @@ package com.linarqa.repository;
 
 import com.linarqa.entity.Staff;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -22,4 +24,25 @@ public interface StaffRepository extends JpaRepository<Staff, UUID> {
     List<Staff> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
     
     List<Staff> findByFirstNameArabicContainingIgnoreCaseOrLastNameArabicContainingIgnoreCase(String firstNameArabic, String lastNameArabic);
+    
+    /**
+     * MySQL FULLTEXT (ngram) search over the latin names, most relevant first
+     */
+    @Query(value = "SELECT * FROM staff WHERE MATCH(first_name, last_name) AGAINST (:query IN BOOLEAN MODE) " +
+           "ORDER BY MATCH(first_name, last_name) AGAINST (:query IN BOOLEAN MODE) DESC", nativeQuery = true)
+    List<Staff> fullTextSearchByName(@Param("query") String query);
+    
+    /**
+     * MySQL FULLTEXT (ngram) search over the arabic names, most relevant first
+     */
+    @Query(value = "SELECT * FROM staff WHERE MATCH(first_name_arabic, last_name_arabic) AGAINST (:query IN BOOLEAN MODE) " +
+           "ORDER BY MATCH(first_name_arabic, last_name_arabic) AGAINST (:query IN BOOLEAN MODE) DESC", nativeQuery = true)
+    List<Staff> fullTextSearchByArabicName(@Param("query") String query);
+    
+    /**
+     * Find active staff that have no salary history yet (created before history was recorded)
+     */
+    @Query("SELECT s FROM Staff s WHERE s.active = true AND NOT EXISTS " +
+           "(SELECT 1 FROM StaffSalaryHistory h WHERE h.staffId = s.id)")
+    List<Staff> findActiveWithoutSalaryHistory();
 }
@@ -0,0 +1,27 @@
+package com.linarqa.repository;
+
+import com.linarqa.entity.StaffSalaryHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StaffSalaryHistoryRepository extends JpaRepository<StaffSalaryHistory, UUID> {
+    
+    Optional<StaffSalaryHistory> findFirstByStaffIdAndEffectiveToIsNull(UUID staffId);
+    
+    long countByStaffId(UUID staffId);
+    
+    /**
+     * Find salary intervals overlapping [startDate, endDate]
+     */
+    @Query("SELECT h FROM StaffSalaryHistory h WHERE h.effectiveFrom <= :endDate " +
+           "AND (h.effectiveTo IS NULL OR h.effectiveTo > :startDate)")
+    List<StaffSalaryHistory> findEffectiveBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
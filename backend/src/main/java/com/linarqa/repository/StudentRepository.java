@@ -2,10 +2,12 @@ package com.linarqa.repository;
 
 import com.linarqa.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, UUID> {
@@ -19,4 +21,9 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
     List<Student> findByClassroom(String classroom);
     
     List<Student> findByGuardianPhone(String guardianPhone);
+    
+    List<Student> findByPhotoUrlContaining(String fragment);
+    
+    @Query("SELECT s.photoUrl FROM Student s WHERE s.photoUrl IS NOT NULL")
+    Stream<String> streamPhotoUrls();
 } 
\ No newline at end of file
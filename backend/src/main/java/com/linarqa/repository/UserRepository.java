@@ -2,6 +2,8 @@ package com.linarqa.repository;
 
 import com.linarqa.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailAndActiveTrue(String email);
     List<User> findByRole(User.UserRole role);
+    
+    @Query("SELECT u.id FROM User u WHERE u.role = :role")
+    List<UUID> findIdsByRole(@Param("role") User.UserRole role);
 } 
\ No newline at end of file
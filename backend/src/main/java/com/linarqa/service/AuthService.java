@@ -15,7 +15,7 @@ public class AuthService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
     
     public LoginResponse login(String email, String password) {
         Optional<User> userOpt = userRepository.findByEmail(email);
@@ -29,8 +29,18 @@ public class AuthService {
             throw new RuntimeException("Account is disabled");
         }
         
-        String token = jwtService.generateToken(user.getEmail());
-        return new LoginResponse(token, user);
+        return refreshTokenService.issue(user);
+    }
+    
+    /**
+     * Renew a session without the password: rotates the refresh token
+     */
+    public LoginResponse refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken);
+    }
+    
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
     
     public User getCurrentUser(String email) {
@@ -1,8 +1,12 @@
 package com.linarqa.service;
 
 import com.linarqa.entity.*;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.event.PaymentChangedEvent;
 import com.linarqa.repository.*;
+import com.linarqa.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,7 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -28,6 +35,12 @@ public class ExtraPaymentService {
     @Autowired
     private ExtraCourseRepository extraCourseRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
     /**
      * Generate monthly bills for all active extra course enrollments
      * This method is scheduled to run on the first day of each month at 1:00 AM
@@ -46,35 +59,42 @@ public class ExtraPaymentService {
     public void generateMonthlyBillsForMonth(int year, int month) {
         LocalDate billDate = LocalDate.of(year, month, 1);
         LocalDate dueDate = LocalDate.of(year, month, 1); // Due date is 1st of the month
+        LocalDate monthEnd = billDate.withDayOfMonth(billDate.lengthOfMonth());
+        
+        // Single fetch-joined query: active enrollments (with student and course) that have no bill this month
+        List<ExtraStudentEnrollment> unbilledEnrollments = enrollmentRepository.findUnbilledByStatusAndDueDateBetween(
+            ExtraStudentEnrollment.EnrollmentStatus.ACTIVE, billDate, monthEnd);
+        
+        // A student may hold several active enrollments in the same course; bill them once
+        Set<String> billedPairs = new HashSet<>();
+        List<ExtraPayment> monthlyBills = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
         
-        // Get all active enrollments
-        List<ExtraStudentEnrollment> activeEnrollments = enrollmentRepository.findByStatus(ExtraStudentEnrollment.EnrollmentStatus.ACTIVE);
-        
-        for (ExtraStudentEnrollment enrollment : activeEnrollments) {
-            // Check if a bill for this month already exists
-            if (!hasBillForMonth(enrollment.getExtraStudent().getId(), enrollment.getCourse().getId(), year, month)) {
-                ExtraPayment monthlyBill = ExtraPayment.builder()
-                    .extraStudent(enrollment.getExtraStudent())
-                    .extraCourse(enrollment.getCourse())
-                    .amount(enrollment.getCourse().getMonthlyPrice())
-                    .status(ExtraPayment.PaymentStatus.UNPAID)
-                    .dueDate(dueDate)
-                    .notes("Monthly fee for " + enrollment.getCourse().getTitle() + " - " + billDate.getMonth() + " " + year)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-                
-                extraPaymentRepository.save(monthlyBill);
+        for (ExtraStudentEnrollment enrollment : unbilledEnrollments) {
+            ExtraStudent student = enrollment.getExtraStudent();
+            ExtraCourse course = enrollment.getCourse();
+            if (!billedPairs.add(student.getId() + ":" + course.getId())) {
+                continue;
             }
+            
+            monthlyBills.add(ExtraPayment.builder()
+                .extraStudent(student)
+                .extraCourse(course)
+                .amount(course.getMonthlyPrice())
+                .status(ExtraPayment.PaymentStatus.UNPAID)
+                .dueDate(dueDate)
+                .notes("Monthly fee for " + course.getTitle() + " - " + billDate.getMonth() + " " + year)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        }
+        
+        // Written through hibernate.jdbc.batch_size batched inserts
+        extraPaymentRepository.saveAll(monthlyBills);
+        
+        if (!monthlyBills.isEmpty()) {
+            publishPaymentChanged();
         }
-    }
-
-    /**
-     * Check if a bill already exists for a student and course for a specific month
-     */
-    private boolean hasBillForMonth(UUID studentId, UUID courseId, int year, int month) {
-        List<ExtraPayment> existingBills = extraPaymentRepository.findByStudentAndCourseAndMonth(studentId, courseId, year, month);
-        return !existingBills.isEmpty();
     }
 
     /**
@@ -99,7 +119,10 @@ public class ExtraPaymentService {
             .updatedAt(LocalDateTime.now())
             .build();
         
-        return extraPaymentRepository.save(bill);
+        ExtraPayment savedBill = extraPaymentRepository.save(bill);
+        publishPaymentChanged();
+        publishNotification(Notification.NotificationType.EXTRA_PAYMENT_CREATED, savedBill);
+        return savedBill;
     }
 
     /**
@@ -114,7 +137,10 @@ public class ExtraPaymentService {
         payment.setPaidDate(LocalDate.now());
         payment.setUpdatedAt(LocalDateTime.now());
         
-        return extraPaymentRepository.save(payment);
+        ExtraPayment savedPayment = extraPaymentRepository.save(payment);
+        publishPaymentChanged();
+        publishNotification(Notification.NotificationType.EXTRA_PAYMENT_MARKED_PAID, savedPayment);
+        return savedPayment;
     }
 
     /**
@@ -193,6 +219,27 @@ public class ExtraPaymentService {
                 extraPaymentRepository.save(payment);
             }
         }
+        
+        if (!overduePayments.isEmpty()) {
+            publishPaymentChanged();
+        }
+    }
+
+    private void publishPaymentChanged() {
+        eventPublisher.publishEvent(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.EXTRA_PAYMENT));
+    }
+
+    /**
+     * Notify the admins on behalf of the current user once the transaction commits
+     */
+    private void publishNotification(Notification.NotificationType type, ExtraPayment payment) {
+        securityUtils.getCurrentUserId().ifPresent(userId -> {
+            ExtraStudent student = payment.getExtraStudent();
+            eventPublisher.publishEvent(NotificationEvent.forStudent(type,
+                student.getFirstName(), student.getLastName(),
+                student.getFirstNameArabic(), student.getLastNameArabic(),
+                payment.getAmount().toString(), payment.getId(), userId));
+        });
     }
 
     public static class PaymentStatistics {
@@ -3,8 +3,13 @@ package com.linarqa.service;
 import com.linarqa.dto.ExtraStudentDto;
 import com.linarqa.dto.ExtraStudentRequest;
 import com.linarqa.entity.ExtraStudent;
+import com.linarqa.entity.Notification;
+import com.linarqa.event.NotificationEvent;
 import com.linarqa.repository.ExtraStudentRepository;
+import com.linarqa.util.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,17 +18,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 public class ExtraStudentService {
@@ -31,8 +37,20 @@ public class ExtraStudentService {
     @Autowired
     private ExtraStudentRepository extraStudentRepository;
 
-    private static final String UPLOAD_DIR = "uploads/extra-students/";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
 
     /**
      * Get all extra students with pagination and sorting
@@ -82,6 +100,11 @@ public class ExtraStudentService {
 
         // Save and return
         ExtraStudent savedStudent = extraStudentRepository.save(extraStudent);
+        securityUtils.getCurrentUserId().ifPresent(userId ->
+            eventPublisher.publishEvent(NotificationEvent.forStudent(Notification.NotificationType.EXTRA_STUDENT_REGISTERED,
+                savedStudent.getFirstName(), savedStudent.getLastName(),
+                savedStudent.getFirstNameArabic(), savedStudent.getLastNameArabic(),
+                null, savedStudent.getId(), userId)));
         return new ExtraStudentDto(savedStudent);
     }
 
@@ -146,7 +169,10 @@ public class ExtraStudentService {
             return getAllExtraStudents();
         }
         
-        List<ExtraStudent> students = extraStudentRepository.findBySearchTerm(searchTerm.trim());
+        String query = fullTextSearchService.queryFor(searchTerm);
+        List<ExtraStudent> students = query != null
+            ? extraStudentRepository.fullTextSearch(query)
+            : extraStudentRepository.findBySearchTerm(searchTerm.trim());
         return students.stream()
             .map(ExtraStudentDto::new)
             .collect(Collectors.toList());
@@ -156,7 +182,10 @@ public class ExtraStudentService {
      * Get extra students by status and search term
      */
     public List<ExtraStudentDto> getExtraStudentsByStatusAndSearch(ExtraStudent.StudentStatus status, String searchTerm) {
-        List<ExtraStudent> students = extraStudentRepository.findByStatusAndSearchTerm(status, searchTerm);
+        String query = fullTextSearchService.queryFor(searchTerm);
+        List<ExtraStudent> students = query != null
+            ? extraStudentRepository.fullTextSearchByStatus(status != null ? status.name() : null, query)
+            : extraStudentRepository.findByStatusAndSearchTerm(status, searchTerm);
         return students.stream()
             .map(ExtraStudentDto::new)
             .collect(Collectors.toList());
@@ -169,9 +198,12 @@ public class ExtraStudentService {
         ExtraStudent extraStudent = extraStudentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Extra student not found with id: " + id));
 
-        // Delete old photo if exists
-        if (extraStudent.getPhotoUrl() != null) {
-            deletePhotoFile(extraStudent.getPhotoUrl());
+        // Reference the new photo before releasing the old one; re-submitting the current URL changes nothing
+        if (!photoUrl.equals(extraStudent.getPhotoUrl())) {
+            photoStorageService.acquire(photoUrl);
+            if (extraStudent.getPhotoUrl() != null) {
+                deletePhotoFile(extraStudent.getPhotoUrl());
+            }
         }
 
         extraStudent.setPhotoUrl(photoUrl);
@@ -193,33 +225,13 @@ public class ExtraStudentService {
             throw new RuntimeException("File is empty");
         }
 
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
         String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String filename = id.toString() + "_" + LocalDateTime.now().format(DATE_FORMATTER) + fileExtension;
-        Path filePath = uploadPath.resolve(filename);
-
-        // Save file
-        Files.copy(file.getInputStream(), filePath);
-
-        // Delete old photo if exists
-        if (extraStudent.getPhotoUrl() != null) {
-            deletePhotoFile(extraStudent.getPhotoUrl());
+        String fileExtension = originalFilename != null && originalFilename.contains(".")
+            ? originalFilename.substring(originalFilename.lastIndexOf("."))
+            : ".jpg";
+        try (InputStream body = file.getInputStream()) {
+            return replacePhoto(extraStudent, photoStorageService.store(body, fileExtension));
         }
-
-        // Update student with new photo URL
-        String photoUrl = "/uploads/extra-students/" + filename;
-        extraStudent.setPhotoUrl(photoUrl);
-        extraStudent.setUpdatedAt(LocalDateTime.now());
-
-        ExtraStudent savedStudent = extraStudentRepository.save(extraStudent);
-        return new ExtraStudentDto(savedStudent);
     }
 
     /**
@@ -229,27 +241,29 @@ public class ExtraStudentService {
         ExtraStudent extraStudent = extraStudentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Extra student not found with id: " + id));
 
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        // Convert base64 to bytes and store
+        byte[] imageBytes = java.util.Base64.getDecoder().decode(base64Data.split(",")[1]);
+        return replacePhoto(extraStudent, photoStorageService.store(new ByteArrayInputStream(imageBytes), ".jpg"));
+    }
 
-        // Generate unique filename
-        String filename = id.toString() + "_" + LocalDateTime.now().format(DATE_FORMATTER) + ".jpg";
-        Path filePath = uploadPath.resolve(filename);
+    /**
+     * Upload student photo from a raw image body, streamed to disk
+     */
+    public ExtraStudentDto uploadStudentPhotoStream(UUID id, InputStream body, String contentType) throws IOException {
+        ExtraStudent extraStudent = extraStudentRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Extra student not found with id: " + id));
 
-        // Convert base64 to file and save
-        byte[] imageBytes = java.util.Base64.getDecoder().decode(base64Data.split(",")[1]);
-        Files.write(filePath, imageBytes);
+        return replacePhoto(extraStudent, photoStorageService.store(body, FileUploadService.extensionFor(contentType)));
+    }
 
-        // Delete old photo if exists
+    private ExtraStudentDto replacePhoto(ExtraStudent extraStudent, String storageKey) {
+        // Release old photo if exists; the new blob is already referenced, so re-uploading the same image keeps it
         if (extraStudent.getPhotoUrl() != null) {
             deletePhotoFile(extraStudent.getPhotoUrl());
         }
 
         // Update student with new photo URL
-        String photoUrl = "/uploads/extra-students/" + filename;
+        String photoUrl = photoStorageService.publicUrl(storageKey);
         extraStudent.setPhotoUrl(photoUrl);
         extraStudent.setUpdatedAt(LocalDateTime.now());
 
@@ -359,17 +373,22 @@ public class ExtraStudentService {
     }
 
     private void deletePhotoFile(String photoUrl) {
+        if (PhotoStorageService.keyFromUrl(photoUrl) != null) {
+            photoStorageService.release(photoUrl);
+            return;
+        }
         try {
             if (photoUrl != null && photoUrl.startsWith("/uploads/")) {
                 String filename = photoUrl.substring("/uploads/".length());
-                Path filePath = Paths.get("uploads", filename);
+                Path filePath = photoStorageService.getUploadRoot().resolve(filename);
+                photoVariantService.deleteVariants(filePath);
                 if (Files.exists(filePath)) {
                     Files.delete(filePath);
                 }
             }
         } catch (IOException e) {
             // Log error but don't throw exception
-            System.err.println("Error deleting photo file: " + e.getMessage());
+            log.warn("Failed to delete photo file", e);
         }
     }
 
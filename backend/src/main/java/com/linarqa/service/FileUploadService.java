@@ -1,58 +1,64 @@
 package com.linarqa.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.Objects;
 
+@Slf4j
 @Service
 public class FileUploadService {
 
-    private static final String UPLOAD_DIR = "uploads/students/";
+    // Flat directory used before photos were content-addressed; only deletes still look here
+    private static final String LEGACY_UPLOAD_DIR = "students";
 
-    public String uploadFile(MultipartFile file) throws IOException {
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+    @Autowired
+    private PhotoStorageService photoStorageService;
 
-        // Generate unique filename
+    public String uploadFile(MultipartFile file) throws IOException {
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileExtension = getFileExtension(originalFilename);
-        String filename = UUID.randomUUID().toString() + fileExtension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        // Return the full URL for frontend access
-        return "http://localhost:8080/api/uploads/students/" + filename;
+        try (InputStream body = file.getInputStream()) {
+            return photoStorageService.publicUrl(photoStorageService.store(body, getFileExtension(originalFilename)));
+        }
     }
 
     public String saveBase64Image(String base64Data, String fileExtension) throws IOException {
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        byte[] imageData = java.util.Base64.getDecoder().decode(base64Data);
+        return photoStorageService.publicUrl(photoStorageService.store(new ByteArrayInputStream(imageData), fileExtension));
+    }
 
-        // Generate unique filename
-        String filename = UUID.randomUUID().toString() + fileExtension;
+    /**
+     * Store a raw image request body, streamed to disk without being held in memory
+     */
+    public String saveImageStream(InputStream body, String contentType) throws IOException {
+        return photoStorageService.publicUrl(photoStorageService.store(body, extensionFor(contentType)));
+    }
 
-        // Decode base64 and save
-        byte[] imageData = java.util.Base64.getDecoder().decode(base64Data);
-        Path filePath = uploadPath.resolve(filename);
-        Files.write(filePath, imageData);
+    public long getMaxPhotoBytes() {
+        return photoStorageService.getMaxPhotoBytes();
+    }
 
-        // Return the full URL for frontend access
-        return "http://localhost:8080/api/uploads/students/" + filename;
+    /**
+     * File extension for an image content type, defaulting to .jpg like camera captures
+     */
+    public static String extensionFor(String contentType) {
+        if (contentType == null) {
+            return ".jpg";
+        }
+        return switch (contentType.toLowerCase().split(";")[0].trim()) {
+            case "image/png" -> ".png";
+            case "image/webp" -> ".webp";
+            case "image/gif" -> ".gif";
+            default -> ".jpg";
+        };
     }
 
     private String getFileExtension(String filename) {
@@ -62,7 +68,24 @@ public class FileUploadService {
         return filename.substring(filename.lastIndexOf("."));
     }
 
+    /**
+     * Point a student at an existing photo URL: references the new upload and releases the old
+     * one; re-submitting the current URL changes nothing
+     */
+    public void reassignFile(String previousUrl, String newUrl) {
+        if (Objects.equals(previousUrl, newUrl)) {
+            return;
+        }
+        photoStorageService.acquire(newUrl);
+        if (previousUrl != null) {
+            deleteFile(previousUrl);
+        }
+    }
+
     public boolean deleteFile(String fileUrl) {
+        if (PhotoStorageService.keyFromUrl(fileUrl) != null) {
+            return photoStorageService.release(fileUrl);
+        }
         try {
             if (fileUrl != null && (fileUrl.startsWith("/api/uploads/students/") || fileUrl.startsWith("http://localhost:8080/api/uploads/students/"))) {
                 String filename;
@@ -71,13 +94,13 @@ public class FileUploadService {
                 } else {
                     filename = fileUrl.substring("/api/uploads/students/".length());
                 }
-                Path filePath = Paths.get(UPLOAD_DIR, filename);
+                Path filePath = photoStorageService.getUploadRoot().resolve(LEGACY_UPLOAD_DIR).resolve(filename);
                 return Files.deleteIfExists(filePath);
             }
         } catch (IOException e) {
             // Log error but don't throw
-            System.err.println("Error deleting file: " + e.getMessage());
+            log.warn("Failed to delete file", e);
         }
         return false;
     }
-} 
\ No newline at end of file
+}
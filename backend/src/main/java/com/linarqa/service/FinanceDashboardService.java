@@ -0,0 +1,108 @@
+package com.linarqa.service;
+
+import com.linarqa.event.PaymentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the finance dashboard (current month summary and pending payments) from an
+ * in-memory snapshot. The snapshot is recomputed in the background when it is older than
+ * the refresh interval or shortly after a payment write, so dashboard reads never hit the database.
+ */
+@Slf4j
+@Service
+public class FinanceDashboardService {
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Value("${dashboard.snapshot.refresh-interval-seconds:30}")
+    private long refreshIntervalSeconds;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    private volatile DashboardSnapshot snapshot;
+
+    /**
+     * Get current month summary with the snapshot age
+     */
+    public Map<String, Object> getCurrentMonthSummary() {
+        DashboardSnapshot current = getSnapshot();
+        return withSnapshotAge(current.currentMonthSummary(), current);
+    }
+
+    /**
+     * Get pending payments with the snapshot age
+     */
+    public Map<String, Object> getPendingPayments() {
+        DashboardSnapshot current = getSnapshot();
+        return withSnapshotAge(current.pendingPayments(), current);
+    }
+
+    /**
+     * Mark the snapshot stale once the payment write is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        dirty.set(true);
+    }
+
+    /**
+     * Recompute the snapshot if a payment changed or it is older than the refresh interval.
+     * Bursts of payment writes between two checks cost a single recomputation.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.check-interval-ms:1000}")
+    public void refreshIfStale() {
+        DashboardSnapshot current = snapshot;
+        boolean expired = current == null
+            || System.currentTimeMillis() - current.computedAtMillis() >= refreshIntervalSeconds * 1000;
+        if (dirty.get() || expired) {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                dirty.set(true);
+                log.warn("Failed to refresh finance dashboard snapshot", e);
+            }
+        }
+    }
+
+    private DashboardSnapshot getSnapshot() {
+        DashboardSnapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    private synchronized DashboardSnapshot refresh() {
+        // Cleared before computing so that writes committed meanwhile trigger another refresh
+        dirty.set(false);
+        DashboardSnapshot fresh = new DashboardSnapshot(
+            Collections.unmodifiableMap(monthlyBalanceService.getCurrentMonthSummary()),
+            Collections.unmodifiableMap(monthlyBalanceService.getPendingPayments()),
+            System.currentTimeMillis());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private Map<String, Object> withSnapshotAge(Map<String, Object> data, DashboardSnapshot source) {
+        Map<String, Object> response = new HashMap<>(data);
+        response.put("snapshotComputedAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(source.computedAtMillis()), ZoneId.systemDefault()));
+        response.put("snapshotAgeMs", System.currentTimeMillis() - source.computedAtMillis());
+        return response;
+    }
+
+    private record DashboardSnapshot(Map<String, Object> currentMonthSummary,
+                                     Map<String, Object> pendingPayments,
+                                     long computedAtMillis) {
+    }
+}
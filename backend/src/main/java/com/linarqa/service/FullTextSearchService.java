@@ -0,0 +1,67 @@
+package com.linarqa.service;
+
+import com.linarqa.util.FullTextQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Decides whether searches may use MATCH ... AGAINST: only when search.fulltext.enabled is set
+ * and the FULLTEXT indexes of V19 exist, since migrations are applied by hand and ddl-auto
+ * cannot create them; otherwise the repositories' LIKE queries are used
+ */
+@Slf4j
+@Service
+public class FullTextSearchService {
+
+    // Must match the index names in V19__Add_fulltext_search_indexes.sql
+    private static final List<String> INDEX_NAMES = List.of("ft_extra_students_search", "ft_staff_name", "ft_staff_name_arabic");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.fulltext.enabled:false}")
+    private boolean enabled;
+
+    private volatile boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectIndexes() {
+        available = enabled && indexesPresent();
+        if (enabled && !available) {
+            log.warn("FULLTEXT search indexes missing, searching with LIKE until V19 is applied and the application restarted");
+        }
+    }
+
+    /**
+     * Boolean-mode expression for a search term, or null when the LIKE query should be used
+     */
+    public String queryFor(String searchTerm) {
+        return available ? FullTextQuery.booleanQuery(searchTerm) : null;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private boolean indexesPresent() {
+        try {
+            Integer found = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT INDEX_NAME) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND INDEX_TYPE = 'FULLTEXT' AND INDEX_NAME IN (?, ?, ?)",
+                Integer.class, INDEX_NAMES.toArray());
+            return found != null && found == INDEX_NAMES.size();
+        } catch (DataAccessException e) {
+            // Databases without MySQL's information_schema layout (H2) cannot run MATCH either
+            log.warn("Could not look up FULLTEXT search indexes", e);
+            return false;
+        }
+    }
+}
@@ -1,68 +1,116 @@
 package com.linarqa.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class JwtService {
     
+    /** Claim carrying the refresh-token session an access token belongs to */
+    public static final String SESSION_CLAIM = "sid";
+    
     @Value("${jwt.secret}")
     private String secretKey;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
     
+    @Value("${jwt.validation-cache-size:10000}")
+    private int validationCacheSize;
+    
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    // SHA-256 of recently verified tokens -> their claims, least recently used evicted first
+    private Map<String, Claims> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > validationCacheSize;
+            }
+        });
+    }
+    
     public String generateToken(String email) {
-        SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        return generateToken(email, null);
+    }
+    
+    public String generateToken(String email, String sessionId) {
         return Jwts.builder()
                 .subject(email)
+                .claim(SESSION_CLAIM, sessionId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public String extractEmail(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes());
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (Exception e) {
+    /**
+     * Verified claims of a token, or null when it is malformed, forged or expired. The signature
+     * is checked once per token; repeat requests are answered from the cache until expiry.
+     */
+    public Claims validate(String token) {
+        if (token == null || token.isBlank()) {
             return null;
         }
+        String tokenHash = sha256(token);
+        Claims claims = verifiedTokens.get(tokenHash);
+        if (claims == null) {
+            try {
+                // Expired tokens are rejected by the parser itself
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            verifiedTokens.put(tokenHash, claims);
+        }
+        if (claims.getExpiration().before(new Date())) {
+            verifiedTokens.remove(tokenHash);
+            return null;
+        }
+        return claims;
+    }
+    
+    public String extractEmail(String token) {
+        Claims claims = validate(token);
+        return claims != null ? claims.getSubject() : null;
     }
     
     public boolean isTokenValid(String token) {
-        try {
-            String email = extractEmail(token);
-            return email != null && !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return validate(token) != null;
     }
     
-    private boolean isTokenExpired(String token) {
+    static String sha256(String value) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes());
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-} 
\ No newline at end of file
+}
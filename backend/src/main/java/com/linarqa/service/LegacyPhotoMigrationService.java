@@ -0,0 +1,152 @@
+package com.linarqa.service;
+
+import com.linarqa.entity.ExtraStudent;
+import com.linarqa.entity.Student;
+import com.linarqa.repository.ExtraStudentRepository;
+import com.linarqa.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Moves photos still stored in the old flat directories (uploads/students/, uploads/extra-students/)
+ * into the content-addressed store and rewrites the photo_url columns that point at them; stored
+ * photo URLs carrying another host or prefix than uploads.public-base-url are rewritten as well
+ */
+@Slf4j
+@Service
+public class LegacyPhotoMigrationService {
+
+    private static final String UPLOADS_SEGMENT = "/uploads/";
+    private static final List<String> LEGACY_SEGMENTS = List.of("/uploads/students/", "/uploads/extra-students/");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ExtraStudentRepository extraStudentRepository;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Value("${uploads.migrate-legacy-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    /**
+     * Migrate every row with a legacy photo URL; returns the number of rows rewritten. Rows whose
+     * file is gone keep their URL, and legacy files are deleted only once all their rows have moved.
+     */
+    public int migrate() {
+        Set<Path> movedFiles = new LinkedHashSet<>();
+        Set<Path> missingFiles = new LinkedHashSet<>();
+        int rewritten = 0;
+
+        Map<UUID, Student> students = new LinkedHashMap<>();
+        Map<UUID, ExtraStudent> extraStudents = new LinkedHashMap<>();
+        for (String segment : List.of("/uploads/students/", "/uploads/extra-students/", PhotoStorageService.URL_SEGMENT)) {
+            studentRepository.findByPhotoUrlContaining(segment).forEach(student -> students.put(student.getId(), student));
+            extraStudentRepository.findByPhotoUrlContaining(segment).forEach(student -> extraStudents.put(student.getId(), student));
+        }
+
+        for (Student student : students.values()) {
+            String photoUrl = migrateUrl(student.getPhotoUrl(), movedFiles, missingFiles);
+            if (photoUrl != null) {
+                student.setPhotoUrl(photoUrl);
+                studentRepository.save(student);
+                rewritten++;
+            }
+        }
+        for (ExtraStudent extraStudent : extraStudents.values()) {
+            String photoUrl = migrateUrl(extraStudent.getPhotoUrl(), movedFiles, missingFiles);
+            if (photoUrl != null) {
+                extraStudent.setPhotoUrl(photoUrl);
+                extraStudentRepository.save(extraStudent);
+                rewritten++;
+            }
+        }
+
+        for (Path file : movedFiles) {
+            photoVariantService.deleteVariants(file);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete migrated legacy photo file={}", file, e);
+            }
+        }
+        if (rewritten > 0 || !missingFiles.isEmpty()) {
+            log.info("Legacy photo migration rows={} files={} missing={}", rewritten, movedFiles.size(), missingFiles.size());
+        }
+        return rewritten;
+    }
+
+    /**
+     * Canonical URL for a stored one, or null when it is already canonical, not an upload, or
+     * its legacy file cannot be stored
+     */
+    private String migrateUrl(String photoUrl, Set<Path> movedFiles, Set<Path> missingFiles) {
+        String existingKey = PhotoStorageService.keyFromUrl(photoUrl);
+        if (existingKey != null) {
+            String canonical = photoStorageService.publicUrl(existingKey);
+            return canonical.equals(photoUrl) ? null : canonical;
+        }
+        Path legacyFile = legacyFile(photoUrl);
+        if (legacyFile == null) {
+            return null;
+        }
+        if (!Files.isRegularFile(legacyFile)) {
+            missingFiles.add(legacyFile);
+            return null;
+        }
+        String storageKey;
+        try (InputStream body = Files.newInputStream(legacyFile)) {
+            storageKey = photoStorageService.store(body, extensionOf(legacyFile));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to migrate legacy photo file={}", legacyFile, e);
+            return null;
+        }
+        movedFiles.add(legacyFile);
+        return photoStorageService.publicUrl(storageKey);
+    }
+
+    private Path legacyFile(String photoUrl) {
+        if (photoUrl == null || LEGACY_SEGMENTS.stream().noneMatch(photoUrl::contains)) {
+            return null;
+        }
+        String relative = photoUrl.substring(photoUrl.indexOf(UPLOADS_SEGMENT) + UPLOADS_SEGMENT.length());
+        if (relative.contains("..")) {
+            return null;
+        }
+        return photoStorageService.getUploadRoot().resolve(relative);
+    }
+
+    private String extensionOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.contains(".") ? name.substring(name.lastIndexOf('.')) : ".jpg";
+    }
+}
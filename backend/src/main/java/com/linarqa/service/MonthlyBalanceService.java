@@ -1,19 +1,32 @@
 package com.linarqa.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linarqa.entity.MonthlyBalanceSnapshot;
 import com.linarqa.entity.Payment;
 import com.linarqa.entity.ExtraPayment;
-import com.linarqa.entity.Staff;
+import com.linarqa.entity.StaffSalaryHistory;
+import com.linarqa.repository.MonthlyBalanceSnapshotRepository;
 import com.linarqa.repository.PaymentRepository;
 import com.linarqa.repository.ExtraPaymentRepository;
-import com.linarqa.repository.StaffRepository;
+import com.linarqa.repository.StaffSalaryHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class MonthlyBalanceService {
@@ -25,45 +38,32 @@ public class MonthlyBalanceService {
     private ExtraPaymentRepository extraPaymentRepository;
     
     @Autowired
-    private StaffRepository staffRepository;
+    private StaffSalaryHistoryRepository salaryHistoryRepository;
+    
+    @Autowired
+    private MonthlyBalanceSnapshotRepository snapshotRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final List<Payment.PaymentStatus> KINDERGARTEN_PENDING_STATUSES = List.of(
+        Payment.PaymentStatus.UNPAID, Payment.PaymentStatus.PARTIAL, Payment.PaymentStatus.OVERDUE);
+
+    private static final List<ExtraPayment.PaymentStatus> EXTRA_COURSE_PENDING_STATUSES = List.of(
+        ExtraPayment.PaymentStatus.UNPAID, ExtraPayment.PaymentStatus.PARTIAL, ExtraPayment.PaymentStatus.OVERDUE);
+
+    // Snapshot fields (and whole sub-maps) holding Integer values; every other number is an amount
+    private static final Set<String> COUNT_FIELDS = Set.of(
+        "year", "month", "totalPayments", "totalStaff", "staffCount", "kindergartenUnpaidCount", "extraCourseUnpaidCount");
 
     /**
-     * Get monthly balance for a specific month and year
+     * Get monthly balance for a specific month and year.
+     * Closed months are served from their snapshot, open months are computed live.
      */
     public Map<String, Object> getMonthlyBalance(int year, int month) {
-        Map<String, Object> balance = new HashMap<>();
-        
-        // Calculate income from kindergarten payments
-        BigDecimal kindergartenIncome = calculateKindergartenIncome(year, month);
-        
-        // Calculate income from extra course payments
-        BigDecimal extraCourseIncome = calculateExtraCourseIncome(year, month);
-        
-        // Calculate total salaries (expenses)
-        BigDecimal totalSalaries = calculateTotalSalaries(year, month);
-        
-        // Calculate net income
-        BigDecimal totalIncome = kindergartenIncome.add(extraCourseIncome);
-        BigDecimal netIncome = totalIncome.subtract(totalSalaries);
-        
-        balance.put("year", year);
-        balance.put("month", month);
-        balance.put("monthName", getMonthName(month));
-        balance.put("kindergartenIncome", kindergartenIncome);
-        balance.put("extraCourseIncome", extraCourseIncome);
-        balance.put("totalIncome", totalIncome);
-        balance.put("totalSalaries", totalSalaries);
-        balance.put("netIncome", netIncome);
-        
-        // Add detailed breakdown
-        balance.put("kindergartenBreakdown", getKindergartenPaymentBreakdown(year, month));
-        balance.put("extraCourseBreakdown", getExtraCoursePaymentBreakdown(year, month));
-        balance.put("salaryBreakdown", getSalaryBreakdown(year, month));
-        
-        // Add provisional income (unpaid bills for the same month)
-        balance.put("provisionalIncome", getProvisionalIncome(year, month));
-        
-        return balance;
+        return snapshotRepository.findByYearAndMonth(year, month)
+            .map(this::readSnapshot)
+            .orElseGet(() -> computeBalances(year, month, month).get(month));
     }
 
     /**
@@ -76,8 +76,28 @@ public class MonthlyBalanceService {
         BigDecimal totalYearlyIncome = BigDecimal.ZERO;
         BigDecimal totalYearlySalaries = BigDecimal.ZERO;
         
+        Map<Integer, Map<String, Object>> balances = new HashMap<>();
+        for (MonthlyBalanceSnapshot snapshot : snapshotRepository.findByYear(year)) {
+            balances.put(snapshot.getMonth(), readSnapshot(snapshot));
+        }
+        
+        // Only months that are still open are computed live
+        List<Integer> openMonths = new ArrayList<>();
         for (int month = 1; month <= 12; month++) {
-            Map<String, Object> monthlyBalance = getMonthlyBalance(year, month);
+            if (!balances.containsKey(month)) {
+                openMonths.add(month);
+            }
+        }
+        if (!openMonths.isEmpty()) {
+            Map<Integer, Map<String, Object>> computed = computeBalances(
+                year, openMonths.get(0), openMonths.get(openMonths.size() - 1));
+            for (Integer month : openMonths) {
+                balances.put(month, computed.get(month));
+            }
+        }
+        
+        for (int month = 1; month <= 12; month++) {
+            Map<String, Object> monthlyBalance = balances.get(month);
             monthlyBalances.put(String.valueOf(month), monthlyBalance);
             
             totalYearlyIncome = totalYearlyIncome.add((BigDecimal) monthlyBalance.get("totalIncome"));
@@ -94,161 +114,257 @@ public class MonthlyBalanceService {
     }
 
     /**
-     * Calculate income from kindergarten payments for a specific month
+     * Close a past month: freeze its computed balance into a snapshot
      */
-    private BigDecimal calculateKindergartenIncome(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+    @Transactional
+    public Map<String, Object> closeMonth(int year, int month, UUID closedByUserId) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        if (!yearMonth.isBefore(YearMonth.now())) {
+            throw new RuntimeException("Only past months can be closed: " + yearMonth);
+        }
+        if (snapshotRepository.findByYearAndMonth(year, month).isPresent()) {
+            throw new RuntimeException("Month " + yearMonth + " is already closed");
+        }
         
-        List<Payment> payments = paymentRepository.findByPaidDateBetweenAndStatus(
-            startDate, endDate, Payment.PaymentStatus.PAID);
+        Map<String, Object> balance = computeBalances(year, month, month).get(month);
+        MonthlyBalanceSnapshot snapshot = MonthlyBalanceSnapshot.builder()
+            .year(year)
+            .month(month)
+            .build();
+        writeSnapshot(snapshot, balance, closedByUserId);
         
-        return payments.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return balance;
     }
 
     /**
-     * Calculate income from extra course payments for a specific month
+     * Reopen a closed month so that it is computed live again
      */
-    private BigDecimal calculateExtraCourseIncome(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+    @Transactional
+    public void reopenMonth(int year, int month) {
+        MonthlyBalanceSnapshot snapshot = snapshotRepository.findByYearAndMonth(year, month)
+            .orElseThrow(() -> new RuntimeException("Month " + YearMonth.of(year, month) + " is not closed"));
         
-        List<ExtraPayment> payments = extraPaymentRepository.findByPaidDateBetweenAndStatus(
-            startDate, endDate, ExtraPayment.PaymentStatus.PAID);
-        
-        return payments.stream()
-            .map(ExtraPayment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        snapshotRepository.delete(snapshot);
     }
 
     /**
-     * Calculate total salaries for a specific month
+     * Recompute the snapshot of a closed month after corrections to its payments
      */
-    private BigDecimal calculateTotalSalaries(int year, int month) {
-        List<Staff> activeStaff = staffRepository.findByActive(true);
+    @Transactional
+    public Map<String, Object> recomputeMonth(int year, int month, UUID closedByUserId) {
+        MonthlyBalanceSnapshot snapshot = snapshotRepository.findByYearAndMonth(year, month)
+            .orElseThrow(() -> new RuntimeException("Month " + YearMonth.of(year, month) + " is not closed"));
+        
+        Map<String, Object> balance = computeBalances(year, month, month).get(month);
+        writeSnapshot(snapshot, balance, closedByUserId);
         
-        return activeStaff.stream()
-            .map(Staff::getSalary)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return balance;
+    }
+
+    private void writeSnapshot(MonthlyBalanceSnapshot snapshot, Map<String, Object> balance, UUID closedByUserId) {
+        try {
+            snapshot.setPayload(objectMapper.writeValueAsString(balance));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize monthly balance: " + e.getMessage(), e);
+        }
+        snapshot.setTotalIncome((BigDecimal) balance.get("totalIncome"));
+        snapshot.setTotalSalaries((BigDecimal) balance.get("totalSalaries"));
+        snapshot.setNetIncome((BigDecimal) balance.get("netIncome"));
+        snapshot.setClosedByUserId(closedByUserId);
+        snapshot.setClosedAt(LocalDateTime.now());
+        
+        snapshotRepository.save(snapshot);
+    }
+
+    private Map<String, Object> readSnapshot(MonthlyBalanceSnapshot snapshot) {
+        try {
+            // Exact decimals keep the scale written at close time (300.00, not 3E+2)
+            JsonNode payload = objectMapper.reader()
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .with(JsonNodeFactory.withExactBigDecimals(true))
+                .readTree(snapshot.getPayload());
+            return readBalance(payload, false);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupted monthly balance snapshot " + snapshot.getYear() + "-" + snapshot.getMonth(), e);
+        }
     }
 
     /**
-     * Get detailed breakdown of kindergarten payments
+     * Rebuild a snapshot object with the types of a live balance: JSON drops the difference
+     * between 300 and an amount of 300, so counts become Integer and amounts BigDecimal by field
      */
-    private Map<String, Object> getKindergartenPaymentBreakdown(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+    private Map<String, Object> readBalance(JsonNode node, boolean counts) {
+        Map<String, Object> balance = new HashMap<>();
+        node.fields().forEachRemaining(field -> {
+            JsonNode value = field.getValue();
+            boolean count = counts || COUNT_FIELDS.contains(field.getKey());
+            if (value.isObject()) {
+                balance.put(field.getKey(), readBalance(value, count));
+            } else if (value.isTextual()) {
+                balance.put(field.getKey(), value.asText());
+            } else if (count) {
+                balance.put(field.getKey(), value.intValue());
+            } else {
+                balance.put(field.getKey(), value.decimalValue());
+            }
+        });
+        return balance;
+    }
+
+    /**
+     * Compute the balance of every month in [fromMonth, toMonth] of a year.
+     * Payments are read with grouped aggregate queries and salaries with one interval query
+     * covering the whole range, so the query count does not depend on the number of months or payments.
+     */
+    private Map<Integer, Map<String, Object>> computeBalances(int year, int fromMonth, int toMonth) {
+        LocalDate startDate = LocalDate.of(year, fromMonth, 1);
+        LocalDate lastMonth = LocalDate.of(year, toMonth, 1);
+        LocalDate endDate = lastMonth.withDayOfMonth(lastMonth.lengthOfMonth());
         
-        List<Payment> payments = paymentRepository.findByPaidDateBetweenAndStatus(
+        List<Object[]> kindergartenPaid = paymentRepository.sumByPaidMonthAndType(
             startDate, endDate, Payment.PaymentStatus.PAID);
-        
-        Map<String, Object> breakdown = new HashMap<>();
-        Map<String, BigDecimal> byType = new HashMap<>();
-        int totalPayments = payments.size();
-        
-        for (Payment payment : payments) {
-            String type = payment.getType().toString();
-            byType.merge(type, payment.getAmount(), BigDecimal::add);
+        List<Object[]> extraCoursePaid = extraPaymentRepository.sumByPaidMonthAndCourse(
+            startDate, endDate, ExtraPayment.PaymentStatus.PAID);
+        List<Object[]> kindergartenUnpaid = paymentRepository.sumByDueMonthAndStatusIn(
+            startDate, endDate, KINDERGARTEN_PENDING_STATUSES);
+        List<Object[]> extraCourseUnpaid = extraPaymentRepository.sumByDueMonthAndStatusIn(
+            startDate, endDate, EXTRA_COURSE_PENDING_STATUSES);
+        List<StaffSalaryHistory> salaries = salaryHistoryRepository.findEffectiveBetween(startDate, endDate);
+        LocalDate today = LocalDate.now();
+        
+        Map<Integer, Map<String, Object>> balances = new HashMap<>();
+        for (int month = fromMonth; month <= toMonth; month++) {
+            Map<String, Object> kindergartenBreakdown = getPaymentBreakdown(kindergartenPaid, month, "byType");
+            Map<String, Object> extraCourseBreakdown = getPaymentBreakdown(extraCoursePaid, month, "byCourse");
+            Map<String, Object> salaryBreakdown = getSalaryBreakdown(salaries, getPayrollDate(year, month, today));
+            
+            BigDecimal kindergartenIncome = (BigDecimal) kindergartenBreakdown.get("totalAmount");
+            BigDecimal extraCourseIncome = (BigDecimal) extraCourseBreakdown.get("totalAmount");
+            BigDecimal totalSalaries = (BigDecimal) salaryBreakdown.get("totalAmount");
+            
+            // Calculate net income
+            BigDecimal totalIncome = kindergartenIncome.add(extraCourseIncome);
+            BigDecimal netIncome = totalIncome.subtract(totalSalaries);
+            
+            Map<String, Object> balance = new HashMap<>();
+            balance.put("year", year);
+            balance.put("month", month);
+            balance.put("monthName", getMonthName(month));
+            balance.put("kindergartenIncome", kindergartenIncome);
+            balance.put("extraCourseIncome", extraCourseIncome);
+            balance.put("totalIncome", totalIncome);
+            balance.put("totalSalaries", totalSalaries);
+            balance.put("netIncome", netIncome);
+            
+            // Add detailed breakdown
+            balance.put("kindergartenBreakdown", kindergartenBreakdown);
+            balance.put("extraCourseBreakdown", extraCourseBreakdown);
+            balance.put("salaryBreakdown", salaryBreakdown);
+            
+            // Add provisional income (unpaid bills for the same month)
+            balance.put("provisionalIncome", getProvisionalIncome(kindergartenUnpaid, extraCourseUnpaid, month));
+            
+            balances.put(month, balance);
         }
         
-        breakdown.put("totalPayments", totalPayments);
-        breakdown.put("byType", byType);
-        breakdown.put("totalAmount", payments.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-        
-        return breakdown;
+        return balances;
     }
 
     /**
-     * Get detailed breakdown of extra course payments
+     * Build the breakdown of paid payments for one month from [month, key, count, amount] rows
      */
-    private Map<String, Object> getExtraCoursePaymentBreakdown(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-        
-        List<ExtraPayment> payments = extraPaymentRepository.findByPaidDateBetweenAndStatus(
-            startDate, endDate, ExtraPayment.PaymentStatus.PAID);
-        
+    private Map<String, Object> getPaymentBreakdown(List<Object[]> rows, int month, String breakdownKey) {
         Map<String, Object> breakdown = new HashMap<>();
-        Map<String, BigDecimal> byCourse = new HashMap<>();
-        int totalPayments = payments.size();
-        
-        for (ExtraPayment payment : payments) {
-            String courseName = payment.getExtraCourse().getTitle();
-            byCourse.merge(courseName, payment.getAmount(), BigDecimal::add);
+        Map<String, BigDecimal> byKey = new HashMap<>();
+        int totalPayments = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        
+        for (Object[] row : rows) {
+            if (((Number) row[0]).intValue() != month) {
+                continue;
+            }
+            BigDecimal amount = (BigDecimal) row[3];
+            byKey.merge(row[1].toString(), amount, BigDecimal::add);
+            totalPayments += ((Number) row[2]).intValue();
+            totalAmount = totalAmount.add(amount);
         }
         
         breakdown.put("totalPayments", totalPayments);
-        breakdown.put("byCourse", byCourse);
-        breakdown.put("totalAmount", payments.stream()
-            .map(ExtraPayment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
+        breakdown.put(breakdownKey, byKey);
+        breakdown.put("totalAmount", totalAmount);
         
         return breakdown;
     }
 
     /**
-     * Get detailed breakdown of salaries
+     * Payroll of a month is the salaries in effect on its last day, or today for the current month
      */
-    private Map<String, Object> getSalaryBreakdown(int year, int month) {
-        List<Staff> activeStaff = staffRepository.findByActive(true);
-        
+    private LocalDate getPayrollDate(int year, int month, LocalDate today) {
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+        return monthEnd.isAfter(today) ? today : monthEnd;
+    }
+
+    /**
+     * Build the breakdown of salaries in effect on the payroll date
+     */
+    private Map<String, Object> getSalaryBreakdown(List<StaffSalaryHistory> salaries, LocalDate payrollDate) {
         Map<String, Object> breakdown = new HashMap<>();
         Map<String, BigDecimal> byType = new HashMap<>();
         Map<String, Integer> staffCount = new HashMap<>();
-        
-        for (Staff staff : activeStaff) {
-            String type = staff.getType().toString();
-            byType.merge(type, staff.getSalary(), BigDecimal::add);
+        int totalStaff = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        
+        for (StaffSalaryHistory salary : salaries) {
+            boolean inEffect = !salary.getEffectiveFrom().isAfter(payrollDate)
+                && (salary.getEffectiveTo() == null || salary.getEffectiveTo().isAfter(payrollDate));
+            if (!inEffect) {
+                continue;
+            }
+            String type = salary.getStaffType().toString();
+            byType.merge(type, salary.getSalary(), BigDecimal::add);
             staffCount.merge(type, 1, Integer::sum);
+            totalStaff++;
+            totalAmount = totalAmount.add(salary.getSalary());
         }
         
-        breakdown.put("totalStaff", activeStaff.size());
+        breakdown.put("totalStaff", totalStaff);
         breakdown.put("byType", byType);
         breakdown.put("staffCount", staffCount);
-        breakdown.put("totalAmount", activeStaff.stream()
-            .map(Staff::getSalary)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
+        breakdown.put("totalAmount", totalAmount);
         
         return breakdown;
     }
 
     /**
-     * Get provisional income (unpaid bills for the same month)
+     * Get provisional income (unpaid bills for the same month) from [month, count, amount] rows
      */
-    private Map<String, Object> getProvisionalIncome(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-        
-        // Get unpaid kindergarten payments for the month
-        List<Payment> kindergartenUnpaid = paymentRepository.findByDueDateBetweenAndStatusIn(
-            startDate, endDate, List.of(Payment.PaymentStatus.UNPAID, Payment.PaymentStatus.PARTIAL, Payment.PaymentStatus.OVERDUE));
-        
-        // Get unpaid extra course payments for the month
-        List<ExtraPayment> extraCourseUnpaid = extraPaymentRepository.findByDueDateBetweenAndStatusIn(
-            startDate, endDate, List.of(ExtraPayment.PaymentStatus.UNPAID, ExtraPayment.PaymentStatus.PARTIAL, ExtraPayment.PaymentStatus.OVERDUE));
+    private Map<String, Object> getProvisionalIncome(List<Object[]> kindergartenRows, List<Object[]> extraCourseRows, int month) {
+        Object[] kindergartenUnpaid = findMonthRow(kindergartenRows, month);
+        Object[] extraCourseUnpaid = findMonthRow(extraCourseRows, month);
         
-        BigDecimal kindergartenUnpaidAmount = kindergartenUnpaid.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal extraCourseUnpaidAmount = extraCourseUnpaid.stream()
-            .map(ExtraPayment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal kindergartenUnpaidAmount = kindergartenUnpaid != null ? (BigDecimal) kindergartenUnpaid[2] : BigDecimal.ZERO;
+        BigDecimal extraCourseUnpaidAmount = extraCourseUnpaid != null ? (BigDecimal) extraCourseUnpaid[2] : BigDecimal.ZERO;
         
         Map<String, Object> provisional = new HashMap<>();
         provisional.put("kindergartenUnpaid", kindergartenUnpaidAmount);
         provisional.put("extraCourseUnpaid", extraCourseUnpaidAmount);
         provisional.put("totalUnpaid", kindergartenUnpaidAmount.add(extraCourseUnpaidAmount));
-        provisional.put("kindergartenUnpaidCount", kindergartenUnpaid.size());
-        provisional.put("extraCourseUnpaidCount", extraCourseUnpaid.size());
+        provisional.put("kindergartenUnpaidCount", kindergartenUnpaid != null ? ((Number) kindergartenUnpaid[1]).intValue() : 0);
+        provisional.put("extraCourseUnpaidCount", extraCourseUnpaid != null ? ((Number) extraCourseUnpaid[1]).intValue() : 0);
         
         return provisional;
     }
 
+    private Object[] findMonthRow(List<Object[]> rows, int month) {
+        for (Object[] row : rows) {
+            if (((Number) row[0]).intValue() == month) {
+                return row;
+            }
+        }
+        return null;
+    }
+
     /**
      * Get month name from month number
      */
@@ -274,27 +390,18 @@ public class MonthlyBalanceService {
     public Map<String, Object> getPendingPayments() {
         Map<String, Object> pending = new HashMap<>();
         
-        // Kindergarten pending payments
-        List<Payment> kindergartenPending = paymentRepository.findByStatusIn(
-            List.of(Payment.PaymentStatus.UNPAID, Payment.PaymentStatus.PARTIAL, Payment.PaymentStatus.OVERDUE));
-        
-        // Extra course pending payments
-        List<ExtraPayment> extraCoursePending = extraPaymentRepository.findByStatusIn(
-            List.of(ExtraPayment.PaymentStatus.UNPAID, ExtraPayment.PaymentStatus.PARTIAL, ExtraPayment.PaymentStatus.OVERDUE));
-        
-        BigDecimal kindergartenPendingAmount = kindergartenPending.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Kindergarten and extra course pending totals, aggregated in the database
+        Object[] kindergartenPending = paymentRepository.sumByStatusIn(KINDERGARTEN_PENDING_STATUSES).get(0);
+        Object[] extraCoursePending = extraPaymentRepository.sumByStatusIn(EXTRA_COURSE_PENDING_STATUSES).get(0);
         
-        BigDecimal extraCoursePendingAmount = extraCoursePending.stream()
-            .map(ExtraPayment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal kindergartenPendingAmount = kindergartenPending[1] != null ? (BigDecimal) kindergartenPending[1] : BigDecimal.ZERO;
+        BigDecimal extraCoursePendingAmount = extraCoursePending[1] != null ? (BigDecimal) extraCoursePending[1] : BigDecimal.ZERO;
         
         pending.put("kindergartenPending", kindergartenPendingAmount);
         pending.put("extraCoursePending", extraCoursePendingAmount);
         pending.put("totalPending", kindergartenPendingAmount.add(extraCoursePendingAmount));
-        pending.put("kindergartenCount", kindergartenPending.size());
-        pending.put("extraCourseCount", extraCoursePending.size());
+        pending.put("kindergartenCount", ((Number) kindergartenPending[0]).intValue());
+        pending.put("extraCourseCount", ((Number) extraCoursePending[0]).intValue());
         
         return pending;
     }
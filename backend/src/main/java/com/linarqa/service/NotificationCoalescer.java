@@ -0,0 +1,143 @@
+package com.linarqa.service;
+
+import com.linarqa.config.NotificationCoalescingProperties;
+import com.linarqa.entity.Notification;
+import com.linarqa.event.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds bursts of same-type notification events into one digest: within a sliding window the
+ * first events of a type pass through, the rest are counted and written as a single
+ * "N new payments created" notification once the burst goes quiet
+ */
+@Service
+public class NotificationCoalescer {
+
+    @Autowired
+    private NotificationCoalescingProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Notification.NotificationType, Burst> bursts = new ConcurrentHashMap<>();
+
+    private Counter foldedCounter;
+    private Counter digestCounter;
+
+    @PostConstruct
+    void init() {
+        foldedCounter = meterRegistry.counter("notifications.coalescing.events", "outcome", "folded");
+        digestCounter = meterRegistry.counter("notifications.coalescing.digests");
+    }
+
+    /**
+     * Events to write now for an incoming event: the event itself while its burst is below the
+     * threshold, nothing once it is folded, preceded by the digest of an earlier burst that has ended
+     */
+    public List<NotificationEvent> offer(NotificationEvent event, long nowMillis) {
+        NotificationCoalescingProperties.Rule rule = properties.getRuleFor(event.getType());
+        if (rule == null || event.isDigest()) {
+            return List.of(event);
+        }
+
+        List<NotificationEvent> ready = new ArrayList<>(2);
+        bursts.compute(event.getType(), (type, burst) -> {
+            if (burst != null && nowMillis - burst.lastEventAt >= rule.getWindowMs()) {
+                burst.flush(type, ready);
+                burst = null;
+            }
+            if (burst == null) {
+                burst = new Burst();
+            }
+            if (burst.add(event, nowMillis, rule.getThreshold())) {
+                ready.add(event);
+            }
+            return burst;
+        });
+        if (ready.isEmpty() || ready.get(ready.size() - 1) != event) {
+            foldedCounter.increment();
+        }
+        return ready;
+    }
+
+    /**
+     * Digests whose burst has gone quiet or has been held for the maximum delay
+     */
+    public List<NotificationEvent> drainDue(long nowMillis) {
+        List<NotificationEvent> ready = new ArrayList<>();
+        for (Notification.NotificationType type : bursts.keySet()) {
+            bursts.computeIfPresent(type, (key, burst) -> {
+                NotificationCoalescingProperties.Rule rule = properties.getRuleFor(key);
+                boolean quiet = rule == null || nowMillis - burst.lastEventAt >= rule.getWindowMs();
+                if (quiet || nowMillis - burst.foldStartedAt >= rule.getMaxDelayMs()) {
+                    burst.flush(key, ready);
+                }
+                return quiet ? null : burst;
+            });
+        }
+        return ready;
+    }
+
+    /**
+     * Every pending digest regardless of its window, for shutdown
+     */
+    public List<NotificationEvent> drainAll() {
+        return drainDue(Long.MAX_VALUE);
+    }
+
+    private final class Burst {
+        private int seen;
+        private long lastEventAt;
+        private int folded;
+        private long foldStartedAt;
+        private NotificationEvent firstFolded;
+        private UUID actorUserId;
+        private boolean mixedActors;
+
+        /**
+         * Record an event; true when it should still be written on its own
+         */
+        private boolean add(NotificationEvent event, long nowMillis, int threshold) {
+            seen++;
+            lastEventAt = nowMillis;
+            if (seen <= threshold) {
+                return true;
+            }
+            if (folded == 0) {
+                foldStartedAt = nowMillis;
+                firstFolded = event;
+                actorUserId = event.getActorUserId();
+                mixedActors = false;
+            } else if (!Objects.equals(actorUserId, event.getActorUserId())) {
+                mixedActors = true;
+            }
+            folded++;
+            return false;
+        }
+
+        private void flush(Notification.NotificationType type, List<NotificationEvent> ready) {
+            if (folded == 0) {
+                return;
+            }
+            if (folded == 1) {
+                ready.add(firstFolded);
+            } else {
+                ready.add(NotificationEvent.digest(type, folded, mixedActors ? null : actorUserId, firstFolded.getOccurredAtMillis()));
+                digestCounter.increment();
+            }
+            folded = 0;
+            firstFolded = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.linarqa.service;
+
+import com.linarqa.event.NotificationsChangedEvent;
+import com.linarqa.repository.NotificationReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Unread and total receipt counts held in memory so count endpoints never hit the database.
+ * Counters move with committed changes and are periodically reconciled against a grouped COUNT
+ * to correct drift from concurrent reads or bulk statements; changes committed while the COUNT
+ * runs are replayed onto its result.
+ */
+@Service
+public class NotificationCounterService {
+
+    @Autowired
+    private NotificationReceiptRepository receiptRepository;
+
+    private volatile Counters counters = new Counters();
+
+    // Deltas applied while a reconcile is counting, replayed onto the rebuilt counters so
+    // changes committed after the COUNT are not lost by the swap; null when not reconciling
+    private volatile Queue<NotificationsChangedEvent> pendingDeltas;
+
+    // Listeners share the read lock; reconcile takes the write lock to start recording and to swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    /**
+     * Seed the counters once the schema is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild the counters from the database
+     */
+    @Scheduled(fixedDelayString = "${notifications.counters.reconcile-interval-ms:300000}",
+               initialDelayString = "${notifications.counters.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        swapLock.writeLock().lock();
+        try {
+            pendingDeltas = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Counters fresh = new Counters();
+        try {
+            for (Object[] row : receiptRepository.countUnreadGroupedByUser()) {
+                long count = ((Number) row[1]).longValue();
+                fresh.unreadByUser.computeIfAbsent((UUID) row[0], id -> new LongAdder()).add(count);
+                fresh.totalUnread.add(count);
+            }
+            fresh.total.add(receiptRepository.count());
+        } catch (RuntimeException e) {
+            pendingDeltas = null;
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            for (NotificationsChangedEvent event : pendingDeltas) {
+                fresh.apply(event);
+            }
+            pendingDeltas = null;
+            counters = fresh;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply committed changes before other listeners read the counts
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            counters.apply(event);
+            Queue<NotificationsChangedEvent> pending = pendingDeltas;
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public long getUnreadCount(UUID userId) {
+        LongAdder adder = counters.unreadByUser.get(userId);
+        return adder != null ? Math.max(0, adder.sum()) : 0;
+    }
+
+    public long getUnreadCount(Collection<UUID> userIds) {
+        long sum = 0;
+        for (UUID userId : userIds) {
+            sum += getUnreadCount(userId);
+        }
+        return sum;
+    }
+
+    public long getTotalUnreadCount() {
+        return Math.max(0, counters.totalUnread.sum());
+    }
+
+    public long getTotalCount() {
+        return Math.max(0, counters.total.sum());
+    }
+
+    private static final class Counters {
+        private final Map<UUID, LongAdder> unreadByUser = new ConcurrentHashMap<>();
+        private final LongAdder totalUnread = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        private void apply(NotificationsChangedEvent event) {
+            event.getUnreadDeltas().forEach((userId, delta) -> {
+                unreadByUser.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+                totalUnread.add(delta);
+            });
+            total.add(event.getTotalDelta());
+        }
+    }
+}
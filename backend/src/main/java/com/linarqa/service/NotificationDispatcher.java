@@ -0,0 +1,157 @@
+package com.linarqa.service;
+
+import com.linarqa.event.NotificationEvent;
+import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves admin notifications off the request path: events are queued only after the
+ * publishing transaction commits, bursts are coalesced into digests and a background
+ * writer drains them in batches
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private TaskExecutor notificationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notifications.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notifications.dispatch.batch-size:100}")
+    private int batchSize;
+
+    private BlockingQueue<NotificationEvent> pending;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private Timer lagTimer;
+    private Counter writtenCounter;
+    private Counter overflowCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        pending = new LinkedBlockingQueue<>(queueCapacity);
+        Gauge.builder("notifications.dispatch.queue.depth", pending, BlockingQueue::size)
+            .description("Committed notification events waiting to be written")
+            .register(meterRegistry);
+        lagTimer = Timer.builder("notifications.dispatch.lag")
+            .description("Time from the business write to the notification rows being saved")
+            .register(meterRegistry);
+        writtenCounter = meterRegistry.counter("notifications.dispatch.events", "outcome", "written");
+        overflowCounter = meterRegistry.counter("notifications.dispatch.events", "outcome", "overflow");
+        failedCounter = meterRegistry.counter("notifications.dispatch.events", "outcome", "failed");
+    }
+
+    /**
+     * Queue an event once its transaction has committed; when the queue is full the
+     * event is written inline so a burst slows the caller instead of losing notifications
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        notificationCoalescer.offer(event, System.currentTimeMillis()).forEach(this::enqueue);
+    }
+
+    /**
+     * Queue the digests of bursts that have gone quiet or waited long enough
+     */
+    @Scheduled(fixedDelayString = "${notifications.coalescing.flush-interval-ms:1000}")
+    public void flushDigests() {
+        notificationCoalescer.drainDue(System.currentTimeMillis()).forEach(this::enqueue);
+    }
+
+    @PreDestroy
+    void flushPendingDigests() {
+        notificationCoalescer.drainAll().forEach(this::enqueue);
+    }
+
+    /**
+     * Number of committed events not yet written
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    private void enqueue(NotificationEvent event) {
+        if (!pending.offer(event)) {
+            overflowCounter.increment();
+            write(List.of(event));
+            return;
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            notificationExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            // Executor shutting down: flush on the caller thread
+            drain();
+        }
+    }
+
+    private void drain() {
+        try {
+            List<NotificationEvent> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            draining.set(false);
+        }
+        // An event may have been queued between the last poll and releasing the flag
+        if (!pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void write(List<NotificationEvent> batch) {
+        try {
+            notificationService.dispatch(batch);
+            long now = System.currentTimeMillis();
+            for (NotificationEvent event : batch) {
+                lagTimer.record(now - event.getOccurredAtMillis(), TimeUnit.MILLISECONDS);
+            }
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to dispatch {} notification(s)", batch.size(), e);
+        }
+    }
+}
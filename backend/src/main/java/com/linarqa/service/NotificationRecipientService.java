@@ -0,0 +1,39 @@
+package com.linarqa.service;
+
+import com.linarqa.entity.User;
+import com.linarqa.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cached set of notification recipients. Evicted by {@link com.linarqa.config.UserCacheEvictionListener}
+ * whenever a user is created, updated or deleted.
+ */
+@Service
+public class NotificationRecipientService {
+
+    public static final String ADMIN_RECIPIENTS_CACHE = "adminRecipientIds";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Get the ids of admin users (OWNER role) that receive notifications
+     */
+    @Cacheable(ADMIN_RECIPIENTS_CACHE)
+    public List<UUID> getAdminRecipientIds() {
+        return List.copyOf(userRepository.findIdsByRole(User.UserRole.OWNER));
+    }
+
+    /**
+     * Drop the cached recipient set
+     */
+    @CacheEvict(value = ADMIN_RECIPIENTS_CACHE, allEntries = true)
+    public void evictAdminRecipients() {
+    }
+}
@@ -0,0 +1,116 @@
+package com.linarqa.service;
+
+import com.linarqa.config.NotificationRetentionProperties;
+import com.linarqa.entity.Notification;
+import com.linarqa.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Purges expired notifications per type in small primary-key-ordered chunks,
+ * each in its own transaction, so no long-running lock is held on the table
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRetentionProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+
+    /**
+     * Nightly retention run, handed to the maintenance executor
+     */
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * ?}")
+    public void purgeExpiredNotifications() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            maintenanceExecutor.execute(() -> purge(LocalDateTime.now()));
+        } catch (TaskRejectedException e) {
+            log.warn("Notification retention run skipped, maintenance queue is full");
+        }
+    }
+
+    /**
+     * Delete every notification older than its type's retention, returning the rows purged per type
+     */
+    public Map<Notification.NotificationType, Integer> purge(LocalDateTime now) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<Notification.NotificationType, Integer> purged = new EnumMap<>(Notification.NotificationType.class);
+        
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            int days = properties.getDaysFor(type);
+            if (days <= 0) {
+                continue;
+            }
+            int count = purgeType(type, now.minusDays(days));
+            if (count > 0) {
+                purged.put(type, count);
+                meterRegistry.counter("notifications.retention.purged", "type", type.name()).increment(count);
+            }
+        }
+        
+        sample.stop(meterRegistry.timer("notifications.retention.run"));
+        int total = purged.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("Notification retention purged {} rows {}", total, purged);
+        return purged;
+    }
+
+    private int purgeType(Notification.NotificationType type, LocalDateTime cutoff) {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        int purged = 0;
+        while (true) {
+            List<UUID> ids = notificationRepository.findIdsByTypeCreatedBefore(type, cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Own transaction per chunk; also keeps the unread counters and open streams in step
+            purged += notificationService.deleteForAllRecipients(ids);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            pauseBetweenChunks();
+        }
+        return purged;
+    }
+
+    private void pauseBetweenChunks() {
+        if (properties.getChunkPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getChunkPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Notification retention interrupted");
+        }
+    }
+}
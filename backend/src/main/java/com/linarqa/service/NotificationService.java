@@ -1,236 +1,284 @@
 package com.linarqa.service;
 
+import com.linarqa.dto.NotificationDto;
+import com.linarqa.dto.NotificationFeedDto;
 import com.linarqa.entity.Notification;
+import com.linarqa.entity.NotificationReceipt;
 import com.linarqa.entity.User;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.event.NotificationsChangedEvent;
+import com.linarqa.repository.NotificationReceiptRepository;
 import com.linarqa.repository.NotificationRepository;
 import com.linarqa.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 public class NotificationService {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final int FEED_MAX_SIZE = 100;
+    private static final Set<String> RECEIPT_SORT_PROPERTIES = Set.of("createdAt", "isRead", "readAt");
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationReceiptRepository receiptRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationRecipientService notificationRecipientService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
     /**
      * Create a notification for admin users when a new student is registered
      */
     public void notifyStudentRegistered(String studentName, String studentNameArabic, UUID studentId, UUID createdByUserId) {
-        System.out.println("🔔 Creating student registration notification for: " + studentName);
-        
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        System.out.println("👥 Found " + adminUsers.size() + " admin users");
-        
-        if (adminUsers.isEmpty()) {
-            System.out.println("⚠️ No admin users found! Cannot send notification.");
-            return;
-        }
-        
-        for (User admin : adminUsers) {
-            System.out.println("📧 Sending notification to admin: " + admin.getEmail());
-            
-            User creator = userRepository.findById(createdByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Nouvel élève inscrit")
-                .titleArabic("تم تسجيل طالب جديد")
-                .message("Un nouvel élève " + studentName +  ".")
-                .messageArabic("تم تسجيل طالب جديد " + studentNameArabic +  ".")
-                .type(Notification.NotificationType.STUDENT_REGISTERED)
-                .targetUser(admin)
-                .createdBy(creator)
-                .relatedEntityType("STUDENT")
-                .relatedEntityId(studentId)
-                .build();
-            
-            try {
-                Notification savedNotification = notificationRepository.save(notification);
-                System.out.println("✅ Notification saved with ID: " + savedNotification.getId());
-            } catch (Exception e) {
-                System.err.println("❌ Failed to save notification: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.STUDENT_REGISTERED,
+            studentName, studentNameArabic, null, studentId, createdByUserId)));
     }
 
     /**
      * Create a notification for admin users when a new extra student is registered
      */
     public void notifyExtraStudentRegistered(String studentName, String studentNameArabic, UUID studentId, UUID createdByUserId) {
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        
-        for (User admin : adminUsers) {
-            User creator = userRepository.findById(createdByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Nouvel élève supplémentaire inscrit")
-                .titleArabic("تم تسجيل طالب إضافي جديد")
-                .message("Un nouvel élève supplémentaire " + studentName +  ".")
-                .messageArabic("تم تسجيل طالب إضافي جديد " + studentNameArabic + ".")
-                .type(Notification.NotificationType.EXTRA_STUDENT_REGISTERED)
-                .targetUser(admin)
-                .createdBy(creator)
-                .relatedEntityType("EXTRA_STUDENT")
-                .relatedEntityId(studentId)
-                .build();
-            
-            notificationRepository.save(notification);
-        }
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.EXTRA_STUDENT_REGISTERED,
+            studentName, studentNameArabic, null, studentId, createdByUserId)));
     }
 
     /**
      * Create a notification for admin users when a new payment is created
      */
     public void notifyPaymentCreated(String studentName, String studentNameArabic, String amount, UUID paymentId, UUID createdByUserId) {
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        
-        for (User admin : adminUsers) {
-            User creator = userRepository.findById(createdByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Nouveau paiement créé")
-                .titleArabic("تم إنشاء دفعة جديدة")
-                .message("Un nouveau paiement de " + amount + " a été créé pour l'élève " + studentName + ".")
-                .messageArabic("تم إنشاء دفعة جديدة بقيمة " + amount + " للطالب " + studentNameArabic + ".")
-                .type(Notification.NotificationType.PAYMENT_CREATED)
-                .targetUser(admin)
-                .createdBy(creator)
-                .relatedEntityType("PAYMENT")
-                .relatedEntityId(paymentId)
-                .build();
-            
-            notificationRepository.save(notification);
-        }
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.PAYMENT_CREATED,
+            studentName, studentNameArabic, amount, paymentId, createdByUserId)));
     }
 
     /**
      * Create a notification for admin users when a new extra payment is created
      */
     public void notifyExtraPaymentCreated(String studentName, String studentNameArabic, String amount, UUID paymentId, UUID createdByUserId) {
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        
-        for (User admin : adminUsers) {
-            User creator = userRepository.findById(createdByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Nouveau paiement supplémentaire créé")
-                .titleArabic("تم إنشاء دفعة إضافية جديدة")
-                .message("Un nouveau paiement supplémentaire de " + amount + " a été créé pour l'élève " + studentName + ".")
-                .messageArabic("تم إنشاء دفعة إضافية جديدة بقيمة " + amount + " للطالب " + studentNameArabic +".")
-                .type(Notification.NotificationType.EXTRA_PAYMENT_CREATED)
-                .targetUser(admin)
-                .createdBy(creator)
-                .relatedEntityType("EXTRA_PAYMENT")
-                .relatedEntityId(paymentId)
-                .build();
-            
-            notificationRepository.save(notification);
-        }
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.EXTRA_PAYMENT_CREATED,
+            studentName, studentNameArabic, amount, paymentId, createdByUserId)));
     }
 
     /**
      * Create a notification for admin users when a payment is marked as paid
      */
     public void notifyPaymentMarkedPaid(String studentName, String studentNameArabic, String amount, UUID paymentId, UUID markedByUserId) {
-        System.out.println("🔔 Creating payment marked as paid notification for: " + studentName);
-        
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        System.out.println("👥 Found " + adminUsers.size() + " admin users");
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.PAYMENT_MARKED_PAID,
+            studentName, studentNameArabic, amount, paymentId, markedByUserId)));
+    }
+
+    /**
+     * Create a notification for admin users when an extra payment is marked as paid
+     */
+    public void notifyExtraPaymentMarkedPaid(String studentName, String studentNameArabic, String amount, UUID paymentId, UUID markedByUserId) {
+        dispatch(List.of(new NotificationEvent(Notification.NotificationType.EXTRA_PAYMENT_MARKED_PAID,
+            studentName, studentNameArabic, amount, paymentId, markedByUserId)));
+    }
+
+    /**
+     * Fan a batch of events out to every admin user: the content of each event is stored once
+     * with one narrow receipt per admin, the recipient set comes from cache, each distinct creator
+     * is looked up once and all rows are written in JDBC batches. Returns the number of receipts.
+     * Runs in its own transaction because the dispatcher may call it from an after-commit callback.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int dispatch(List<NotificationEvent> events) {
+        List<UUID> adminIds = notificationRecipientService.getAdminRecipientIds();
+        if (adminIds.isEmpty()) {
+            log.warn("No admin users found, dropping {} notification event(s)", events.size());
+            return 0;
+        }
         
-        if (adminUsers.isEmpty()) {
-            System.out.println("⚠️ No admin users found! Cannot send notification.");
-            return;
+        Set<UUID> creatorIds = new HashSet<>();
+        for (NotificationEvent event : events) {
+            if (event.getActorUserId() != null) {
+                creatorIds.add(event.getActorUserId());
+            }
         }
+        Map<UUID, User> creators = new HashMap<>();
+        userRepository.findAllById(creatorIds).forEach(creator -> creators.put(creator.getId(), creator));
         
-        for (User admin : adminUsers) {
-            System.out.println("📧 Sending payment paid notification to admin: " + admin.getEmail());
-            
-            User creator = userRepository.findById(markedByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Paiement marqué comme payé")
-                .titleArabic("تم تحديد الدفعة كمقبوضة")
-                .message("Le paiement de " + amount + " pour l'élève " + studentName + ".")
-                .messageArabic("تم تحديد دفعة بقيمة " + amount + " للطالب " + studentNameArabic +  ".")
-                .type(Notification.NotificationType.PAYMENT_MARKED_PAID)
-                .targetUser(admin)
+        List<Notification> notifications = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            User creator = event.getActorUserId() != null ? creators.get(event.getActorUserId()) : null;
+            notifications.add(buildNotification(event)
                 .createdBy(creator)
-                .relatedEntityType("PAYMENT")
-                .relatedEntityId(paymentId)
-                .build();
-            
-            try {
-                Notification savedNotification = notificationRepository.save(notification);
-                System.out.println("✅ Payment paid notification saved with ID: " + savedNotification.getId());
-            } catch (Exception e) {
-                System.err.println("❌ Failed to save payment paid notification: " + e.getMessage());
-                e.printStackTrace();
+                .relatedEntityId(event.getRelatedEntityId())
+                .build());
+        }
+        notificationRepository.saveAll(notifications);
+        
+        List<NotificationReceipt> receipts = new ArrayList<>(adminIds.size() * notifications.size());
+        for (Notification notification : notifications) {
+            for (UUID adminId : adminIds) {
+                receipts.add(NotificationReceipt.builder()
+                    .notification(notification)
+                    .user(userRepository.getReferenceById(adminId))
+                    .build());
             }
         }
+        receiptRepository.saveAll(receipts);
+        
+        Map<UUID, List<NotificationDto>> created = new HashMap<>();
+        for (NotificationReceipt receipt : receipts) {
+            created.computeIfAbsent(receipt.getUser().getId(), id -> new ArrayList<>())
+                .add(NotificationDto.fromReceipt(receipt));
+        }
+        eventPublisher.publishEvent(NotificationsChangedEvent.created(created));
+        log.debug("{} notification event(s) sent to {} admin users", events.size(), adminIds.size());
+        return receipts.size();
     }
 
     /**
-     * Create a notification for admin users when an extra payment is marked as paid
+     * Localized title, message and related entity type for an event
      */
-    public void notifyExtraPaymentMarkedPaid(String studentName, String studentNameArabic, String amount, UUID paymentId, UUID markedByUserId) {
-        System.out.println("🔔 Creating extra payment marked as paid notification for: " + studentName);
-        
-        List<User> adminUsers = userRepository.findByRole(User.UserRole.OWNER);
-        System.out.println("👥 Found " + adminUsers.size() + " admin users");
+    private Notification.NotificationBuilder buildNotification(NotificationEvent event) {
+        if (event.isDigest()) {
+            return buildDigestNotification(event);
+        }
+        String name = event.getSubjectName();
+        String nameArabic = event.getSubjectNameArabic();
+        String amount = event.getAmount();
+        Notification.NotificationBuilder builder = Notification.builder().type(event.getType());
         
-        if (adminUsers.isEmpty()) {
-            System.out.println("⚠️ No admin users found! Cannot send notification.");
-            return;
+        switch (event.getType()) {
+            case STUDENT_REGISTERED:
+                return builder
+                    .title("Nouvel élève inscrit")
+                    .titleArabic("تم تسجيل طالب جديد")
+                    .message("Un nouvel élève " + name +  ".")
+                    .messageArabic("تم تسجيل طالب جديد " + nameArabic +  ".")
+                    .relatedEntityType("STUDENT");
+            case EXTRA_STUDENT_REGISTERED:
+                return builder
+                    .title("Nouvel élève supplémentaire inscrit")
+                    .titleArabic("تم تسجيل طالب إضافي جديد")
+                    .message("Un nouvel élève supplémentaire " + name +  ".")
+                    .messageArabic("تم تسجيل طالب إضافي جديد " + nameArabic + ".")
+                    .relatedEntityType("EXTRA_STUDENT");
+            case PAYMENT_CREATED:
+                return builder
+                    .title("Nouveau paiement créé")
+                    .titleArabic("تم إنشاء دفعة جديدة")
+                    .message("Un nouveau paiement de " + amount + " a été créé pour l'élève " + name + ".")
+                    .messageArabic("تم إنشاء دفعة جديدة بقيمة " + amount + " للطالب " + nameArabic + ".")
+                    .relatedEntityType("PAYMENT");
+            case EXTRA_PAYMENT_CREATED:
+                return builder
+                    .title("Nouveau paiement supplémentaire créé")
+                    .titleArabic("تم إنشاء دفعة إضافية جديدة")
+                    .message("Un nouveau paiement supplémentaire de " + amount + " a été créé pour l'élève " + name + ".")
+                    .messageArabic("تم إنشاء دفعة إضافية جديدة بقيمة " + amount + " للطالب " + nameArabic +".")
+                    .relatedEntityType("EXTRA_PAYMENT");
+            case PAYMENT_MARKED_PAID:
+                return builder
+                    .title("Paiement marqué comme payé")
+                    .titleArabic("تم تحديد الدفعة كمقبوضة")
+                    .message("Le paiement de " + amount + " pour l'élève " + name + ".")
+                    .messageArabic("تم تحديد دفعة بقيمة " + amount + " للطالب " + nameArabic +  ".")
+                    .relatedEntityType("PAYMENT");
+            case EXTRA_PAYMENT_MARKED_PAID:
+                return builder
+                    .title("Paiement supplémentaire marqué comme payé")
+                    .titleArabic("تم تحديد الدفعة الإضافية كمقبوضة")
+                    .message("Le paiement supplémentaire de " + amount + " pour l'élève " + name +  ".")
+                    .messageArabic("تم تحديد دفعة إضافية بقيمة " + amount + " للطالب " + nameArabic + ".")
+                    .relatedEntityType("EXTRA_PAYMENT");
+            default:
+                throw new RuntimeException("Unsupported notification type: " + event.getType());
         }
+    }
+
+    /**
+     * Localized aggregate title and message for a digest of coalesced events; the client links
+     * it to the related entity list filtered from aggregateSince
+     */
+    private Notification.NotificationBuilder buildDigestNotification(NotificationEvent event) {
+        int count = event.getCount();
+        Notification.NotificationBuilder builder = Notification.builder()
+            .type(event.getType())
+            .aggregateCount(count)
+            .aggregateSince(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getOccurredAtMillis()), ZoneId.systemDefault()));
         
-        for (User admin : adminUsers) {
-            System.out.println("📧 Sending extra payment paid notification to admin: " + admin.getEmail());
-            
-            User creator = userRepository.findById(markedByUserId).orElse(null);
-            String creatorName = creator != null ? creator.getFullName() : "Personnel inconnu";
-            String creatorNameArabic = creator != null ? creator.getFullNameArabic() : "موظف غير معروف";
-            
-            Notification notification = Notification.builder()
-                .title("Paiement supplémentaire marqué comme payé")
-                .titleArabic("تم تحديد الدفعة الإضافية كمقبوضة")
-                .message("Le paiement supplémentaire de " + amount + " pour l'élève " + studentName +  ".")
-                .messageArabic("تم تحديد دفعة إضافية بقيمة " + amount + " للطالب " + studentNameArabic + ".")
-                .type(Notification.NotificationType.EXTRA_PAYMENT_MARKED_PAID)
-                .targetUser(admin)
-                .createdBy(creator)
-                .relatedEntityType("EXTRA_PAYMENT")
-                .relatedEntityId(paymentId)
-                .build();
-            
-            try {
-                Notification savedNotification = notificationRepository.save(notification);
-                System.out.println("✅ Extra payment paid notification saved with ID: " + savedNotification.getId());
-            } catch (Exception e) {
-                System.err.println("❌ Failed to save extra payment paid notification: " + e.getMessage());
-                e.printStackTrace();
-            }
+        switch (event.getType()) {
+            case STUDENT_REGISTERED:
+                return builder
+                    .title("Nouveaux élèves inscrits")
+                    .titleArabic("تم تسجيل طلاب جدد")
+                    .message(count + " nouveaux élèves ont été inscrits.")
+                    .messageArabic("تم تسجيل " + count + " طلاب جدد.")
+                    .relatedEntityType("STUDENT");
+            case EXTRA_STUDENT_REGISTERED:
+                return builder
+                    .title("Nouveaux élèves supplémentaires inscrits")
+                    .titleArabic("تم تسجيل طلاب إضافيين جدد")
+                    .message(count + " nouveaux élèves supplémentaires ont été inscrits.")
+                    .messageArabic("تم تسجيل " + count + " طلاب إضافيين جدد.")
+                    .relatedEntityType("EXTRA_STUDENT");
+            case PAYMENT_CREATED:
+                return builder
+                    .title("Nouveaux paiements créés")
+                    .titleArabic("تم إنشاء دفعات جديدة")
+                    .message(count + " nouveaux paiements ont été créés.")
+                    .messageArabic("تم إنشاء " + count + " دفعات جديدة.")
+                    .relatedEntityType("PAYMENT");
+            case EXTRA_PAYMENT_CREATED:
+                return builder
+                    .title("Nouveaux paiements supplémentaires créés")
+                    .titleArabic("تم إنشاء دفعات إضافية جديدة")
+                    .message(count + " nouveaux paiements supplémentaires ont été créés.")
+                    .messageArabic("تم إنشاء " + count + " دفعات إضافية جديدة.")
+                    .relatedEntityType("EXTRA_PAYMENT");
+            case PAYMENT_MARKED_PAID:
+                return builder
+                    .title("Paiements marqués comme payés")
+                    .titleArabic("تم تحديد دفعات كمقبوضة")
+                    .message(count + " paiements ont été marqués comme payés.")
+                    .messageArabic("تم تحديد " + count + " دفعات كمقبوضة.")
+                    .relatedEntityType("PAYMENT");
+            case EXTRA_PAYMENT_MARKED_PAID:
+                return builder
+                    .title("Paiements supplémentaires marqués comme payés")
+                    .titleArabic("تم تحديد دفعات إضافية كمقبوضة")
+                    .message(count + " paiements supplémentaires ont été marqués comme payés.")
+                    .messageArabic("تم تحديد " + count + " دفعات إضافية كمقبوضة.")
+                    .relatedEntityType("EXTRA_PAYMENT");
+            default:
+                throw new RuntimeException("Unsupported notification type: " + event.getType());
         }
     }
 
@@ -238,144 +286,208 @@ public class NotificationService {
      * Get all notifications for a specific user
      */
     @Transactional(readOnly = true)
-    public Page<Notification> getUserNotifications(UUID userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.findByTargetUserOrderByCreatedAtDesc(user, pageable);
+    public Page<NotificationDto> getUserNotifications(UUID userId, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return receiptRepository.findByUserId(userId, toReceiptPageable(pageable))
+            .map(NotificationDto::fromReceipt);
+    }
+
+    /**
+     * Keyset-paginated feed for a user: before is the nextCursor of the previous page
+     * ("createdAt,notificationId") or null for the newest notifications
+     */
+    @Transactional(readOnly = true)
+    public NotificationFeedDto getNotificationFeed(UUID userId, String before, int size) {
+        int limit = Math.max(1, Math.min(size, FEED_MAX_SIZE));
+        Pageable window = PageRequest.of(0, limit + 1);
+        
+        List<NotificationReceipt> receipts;
+        if (before == null || before.isBlank()) {
+            receipts = receiptRepository.findFeed(userId, window);
+        } else {
+            String[] cursor = before.split(",", 2);
+            if (cursor.length != 2) {
+                throw new RuntimeException("Invalid cursor: " + before);
+            }
+            try {
+                receipts = receiptRepository.findFeedBefore(userId,
+                    LocalDateTime.parse(cursor[0].trim()), UUID.fromString(cursor[1].trim()), window);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new RuntimeException("Invalid cursor: " + before);
+            }
+        }
+        
+        boolean hasMore = receipts.size() > limit;
+        List<NotificationReceipt> page = hasMore ? receipts.subList(0, limit) : receipts;
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationReceipt last = page.get(page.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getNotification().getId();
+        }
+        return NotificationFeedDto.builder()
+            .notifications(page.stream().map(NotificationDto::fromReceipt).collect(Collectors.toList()))
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
     }
 
     /**
      * Get unread notifications for a specific user
      */
     @Transactional(readOnly = true)
-    public List<Notification> getUnreadNotifications(UUID userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.findByTargetUserAndIsReadFalseOrderByCreatedAtDesc(user);
+    public List<NotificationDto> getUnreadNotifications(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return receiptRepository.findUnreadByUserId(userId).stream()
+            .map(NotificationDto::fromReceipt)
+            .collect(Collectors.toList());
     }
 
     /**
      * Get unread notification count for a specific user
      */
-    @Transactional(readOnly = true)
     public long getUnreadNotificationCount(UUID userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.countByTargetUserAndIsReadFalse(user);
+        return notificationCounterService.getUnreadCount(userId);
     }
 
     /**
-     * Mark a notification as read
+     * Mark a notification as read for a user
      */
     public void markAsRead(UUID notificationId, UUID userId) {
-        Notification notification = notificationRepository.findById(notificationId)
-            .orElseThrow(() -> new RuntimeException("Notification not found"));
+        NotificationReceipt receipt = receiptRepository.findByNotificationIdAndUserId(notificationId, userId)
+            .orElseThrow(() -> new RuntimeException(notificationRepository.existsById(notificationId)
+                ? "Unauthorized access to notification"
+                : "Notification not found"));
         
-        // Verify the notification belongs to the user
-        if (!notification.getTargetUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to notification");
+        if (receipt.isRead()) {
+            return;
         }
-        
-        notification.markAsRead();
-        notificationRepository.save(notification);
+        receipt.markAsRead();
+        receiptRepository.save(receipt);
+        eventPublisher.publishEvent(NotificationsChangedEvent.read(userId, 1));
     }
 
     /**
-     * Mark all notifications as read for a user
+     * Mark all notifications as read for a user with a single UPDATE, returning how many changed
      */
-    public void markAllAsRead(UUID userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        for (Notification notification : unreadNotifications) {
-            notification.markAsRead();
+    public int markAllAsRead(UUID userId) {
+        int updated = receiptRepository.markAllAsReadForUser(userId, LocalDateTime.now());
+        if (updated > 0) {
+            eventPublisher.publishEvent(NotificationsChangedEvent.read(userId, updated));
         }
-        notificationRepository.saveAll(unreadNotifications);
+        return updated;
     }
 
     /**
-     * Get admin notifications
+     * Get all notifications with whether every recipient has read them (simple method for testing)
      */
     @Transactional(readOnly = true)
-    public Page<Notification> getAdminNotifications(Pageable pageable) {
-        return notificationRepository.findAdminNotifications(pageable);
+    public List<NotificationDto> getAllNotifications() {
+        Set<UUID> unreadIds = new HashSet<>();
+        for (Notification notification : notificationRepository.findUnreadByAnyRecipient()) {
+            unreadIds.add(notification.getId());
+        }
+        return notificationRepository.findAllWithCreator().stream()
+            .map(notification -> NotificationDto.fromEntity(notification, !unreadIds.contains(notification.getId())))
+            .collect(Collectors.toList());
     }
 
     /**
-     * Get unread admin notifications
+     * Get notifications some recipient has not read yet (simple method for testing)
      */
     @Transactional(readOnly = true)
-    public List<Notification> getUnreadAdminNotifications() {
-        return notificationRepository.findUnreadAdminNotifications();
+    public List<NotificationDto> getAllUnreadNotifications() {
+        return notificationRepository.findUnreadByAnyRecipient().stream()
+            .map(notification -> NotificationDto.fromEntity(notification, false))
+            .collect(Collectors.toList());
     }
 
     /**
-     * Get unread admin notification count
+     * Get total notification count (one per recipient)
      */
-    @Transactional(readOnly = true)
-    public long getUnreadAdminNotificationCount() {
-        return notificationRepository.countUnreadAdminNotifications();
+    public long getTotalNotificationCount() {
+        return notificationCounterService.getTotalCount();
     }
 
     /**
-     * Delete old notifications (older than 30 days)
+     * Get total unread notification count (one per recipient)
      */
-    public void cleanupOldNotifications() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-        notificationRepository.deleteOldNotifications(cutoffDate);
+    public long getTotalUnreadNotificationCount() {
+        return notificationCounterService.getTotalUnreadCount();
     }
 
     /**
-     * Get all notifications (simple method for testing)
+     * Delete a notification from a user's list; the content goes once no recipient has it left
      */
-    @Transactional(readOnly = true)
-    public List<Notification> getAllNotifications() {
-        return notificationRepository.findAll();
+    public void deleteNotification(UUID notificationId, UUID userId) {
+        if (receiptRepository.findByNotificationIdAndUserId(notificationId, userId).isEmpty()) {
+            throw new RuntimeException("Notification not found");
+        }
+        deleteNotifications(List.of(notificationId), userId);
     }
 
     /**
-     * Get all unread notifications (simple method for testing)
+     * Delete multiple notifications from a user's list with bulk DELETE statements, returning
+     * how many were removed from it
      */
-    @Transactional(readOnly = true)
-    public List<Notification> getAllUnreadNotifications() {
-        return notificationRepository.findAll().stream()
-            .filter(notification -> !notification.isRead())
-            .collect(java.util.stream.Collectors.toList());
+    public int deleteMultipleNotifications(List<UUID> notificationIds, UUID userId) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            throw new RuntimeException("No notification IDs provided");
+        }
+        return deleteNotifications(new ArrayList<>(new HashSet<>(notificationIds)), userId).receipts();
     }
 
     /**
-     * Get total notification count
+     * Delete notifications for every recipient, returning how many were removed (retention)
      */
-    @Transactional(readOnly = true)
-    public long getTotalNotificationCount() {
-        return notificationRepository.count();
+    public int deleteForAllRecipients(List<UUID> notificationIds) {
+        return deleteNotifications(new ArrayList<>(new HashSet<>(notificationIds)), null).notifications();
     }
 
     /**
-     * Get total unread notification count
+     * Delete the receipts of the given notifications, only the user's when userId is set,
+     * then the notifications left without receipts
      */
-    @Transactional(readOnly = true)
-    public long getTotalUnreadNotificationCount() {
-        return notificationRepository.findAll().stream()
-            .filter(notification -> !notification.isRead())
-            .count();
+    private DeleteResult deleteNotifications(List<UUID> notificationIds, UUID userId) {
+        Map<UUID, Long> unreadRemoved = new HashMap<>();
+        int receiptsDeleted = 0;
+        int deleted = 0;
+        
+        // Chunked to keep the IN lists within driver and database limits
+        for (int from = 0; from < notificationIds.size(); from += BULK_CHUNK_SIZE) {
+            List<UUID> chunk = notificationIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, notificationIds.size()));
+            for (Object[] row : receiptRepository.countUnreadGroupedByUserForNotifications(chunk)) {
+                if (userId == null || userId.equals(row[0])) {
+                    unreadRemoved.merge((UUID) row[0], ((Number) row[1]).longValue(), Long::sum);
+                }
+            }
+            receiptsDeleted += userId == null
+                ? receiptRepository.deleteByNotificationIdIn(chunk)
+                : receiptRepository.deleteByUserIdAndNotificationIdIn(userId, chunk);
+            deleted += notificationRepository.deleteWithoutReceiptsByIdIn(chunk);
+        }
+        
+        if (receiptsDeleted > 0) {
+            eventPublisher.publishEvent(NotificationsChangedEvent.deleted(unreadRemoved, receiptsDeleted));
+        }
+        return new DeleteResult(receiptsDeleted, deleted);
     }
 
     /**
-     * Delete a notification by ID
+     * Receipts carry created_at themselves; any other sort property refers to the notification content
      */
-    public void deleteNotification(UUID notificationId) {
-        if (!notificationRepository.existsById(notificationId)) {
-            throw new RuntimeException("Notification not found");
-        }
-        notificationRepository.deleteById(notificationId);
+    private Pageable toReceiptPageable(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+            .map(order -> RECEIPT_SORT_PROPERTIES.contains(order.getProperty())
+                ? order
+                : order.withProperty("notification." + order.getProperty()))
+            .collect(Collectors.toList()));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
-    /**
-     * Delete multiple notifications by IDs
-     */
-    public void deleteMultipleNotifications(List<UUID> notificationIds) {
-        if (notificationIds == null || notificationIds.isEmpty()) {
-            throw new RuntimeException("No notification IDs provided");
-        }
-        notificationRepository.deleteAllById(notificationIds);
+    private record DeleteResult(int receipts, int notifications) {
     }
 }
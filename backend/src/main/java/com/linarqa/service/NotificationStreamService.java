@@ -0,0 +1,305 @@
+package com.linarqa.service;
+
+import com.linarqa.dto.NotificationDto;
+import com.linarqa.event.NotificationsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process broadcaster behind /api/notifications/stream: pushes new notifications and
+ * unread-count changes to every open connection of the target user
+ */
+@Service
+public class NotificationStreamService {
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    public static final String RESYNC_EVENT = "resync";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    @Qualifier("notificationStreamExecutor")
+    private TaskExecutor streamExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.stream.replay-size:100}")
+    private int replaySize;
+
+    @Value("${notifications.stream.connection-buffer-size:64}")
+    private int connectionBufferSize;
+
+    @Value("${notifications.stream.reconnect-ms:3000}")
+    private long reconnectMs;
+
+    private final Map<UUID, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final Map<UUID, Deque<ReplayEntry>> replayBuffers = new ConcurrentHashMap<>();
+
+    // Seeded from the clock so ids from a previous run are never mistaken for current ones
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    private Counter slowConsumerCounter;
+    private Counter replayedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("notifications.stream.connections", connections,
+                map -> map.values().stream().mapToInt(List::size).sum())
+            .description("Open notification stream connections")
+            .register(meterRegistry);
+        slowConsumerCounter = meterRegistry.counter("notifications.stream.disconnects", "reason", "slow-consumer");
+        replayedCounter = meterRegistry.counter("notifications.stream.replayed");
+    }
+
+    /**
+     * Open a stream for a user, replaying what was missed since the given Last-Event-ID
+     * and starting with the current unread count
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter, connectionBufferSize);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(error -> remove(connection));
+
+        connections.compute(userId, (id, userConnections) -> {
+            List<Connection> list = userConnections != null ? userConnections : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            return list;
+        });
+
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            replay(connection, lastEventId);
+        }
+        enqueue(connection, SseEmitter.event()
+            .name(UNREAD_COUNT_EVENT)
+            .reconnectTime(reconnectMs)
+            .data(Map.of("count", notificationService.getUnreadNotificationCount(userId)), MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    /**
+     * Fan committed notification changes out to the connected users
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        event.getCreated().forEach((userId, notifications) -> {
+            for (NotificationDto notification : notifications) {
+                publish(userId, notification);
+            }
+        });
+        for (UUID userId : event.getAffectedUserIds()) {
+            List<Connection> userConnections = connections.get(userId);
+            if (userConnections == null || userConnections.isEmpty()) {
+                continue;
+            }
+            long count = notificationService.getUnreadNotificationCount(userId);
+            for (Connection connection : userConnections) {
+                enqueue(connection, SseEmitter.event()
+                    .name(UNREAD_COUNT_EVENT)
+                    .data(Map.of("count", count), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections (and the proxies in front of them) open and detect dead clients
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (List<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Number of open connections across all users
+     */
+    public int getConnectionCount() {
+        return connections.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (List<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.emitter.complete();
+            }
+        }
+        connections.clear();
+    }
+
+    private void publish(UUID userId, NotificationDto notification) {
+        long id = sequence.incrementAndGet();
+        Deque<ReplayEntry> buffer = replayBuffers.computeIfAbsent(userId, key -> new ArrayDeque<>());
+        synchronized (buffer) {
+            buffer.addLast(new ReplayEntry(id, notification));
+            while (buffer.size() > replaySize) {
+                buffer.removeFirst();
+            }
+        }
+
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            for (Connection connection : userConnections) {
+                enqueue(connection, notificationEvent(id, notification));
+            }
+        }
+    }
+
+    private void replay(Connection connection, String lastEventId) {
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            enqueue(connection, SseEmitter.event().name(RESYNC_EVENT).data(Map.of("reason", "invalid-last-event-id"), MediaType.APPLICATION_JSON));
+            return;
+        }
+
+        // Ids are global, so the last seen id must still be in this user's buffer for an exact
+        // replay; otherwise it was evicted or comes from a previous run and the client refetches
+        List<ReplayEntry> missed = new ArrayList<>();
+        boolean found = false;
+        Deque<ReplayEntry> buffer = replayBuffers.get(connection.userId);
+        if (buffer != null) {
+            synchronized (buffer) {
+                for (ReplayEntry entry : buffer) {
+                    if (entry.id() == lastId) {
+                        found = true;
+                    } else if (entry.id() > lastId) {
+                        missed.add(entry);
+                    }
+                }
+            }
+        }
+
+        if (!found) {
+            enqueue(connection, SseEmitter.event().name(RESYNC_EVENT).data(Map.of("reason", "history-unavailable"), MediaType.APPLICATION_JSON));
+        }
+        for (ReplayEntry entry : missed) {
+            enqueue(connection, notificationEvent(entry.id(), entry.notification()));
+        }
+        replayedCounter.increment(missed.size());
+    }
+
+    private SseEmitter.SseEventBuilder notificationEvent(long id, NotificationDto notification) {
+        return SseEmitter.event()
+            .id(String.valueOf(id))
+            .name(NOTIFICATION_EVENT)
+            .data(notification, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queue an event on the connection's bounded outbox; a client that cannot keep up is
+     * disconnected and catches up through Last-Event-ID replay when it reconnects
+     */
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.outbox.offer(event)) {
+            slowConsumerCounter.increment();
+            close(connection);
+            return;
+        }
+        scheduleFlush(connection);
+    }
+
+    private void scheduleFlush(Connection connection) {
+        if (!connection.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> flush(connection));
+        } catch (TaskRejectedException e) {
+            connection.sending.set(false);
+            close(connection);
+        }
+    }
+
+    private void flush(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed && (event = connection.outbox.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            remove(connection);
+        } finally {
+            connection.sending.set(false);
+        }
+        if (!connection.closed && !connection.outbox.isEmpty()) {
+            scheduleFlush(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        remove(connection);
+        connection.emitter.complete();
+    }
+
+    private void remove(Connection connection) {
+        connection.closed = true;
+        connection.outbox.clear();
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private record ReplayEntry(long id, NotificationDto notification) {
+    }
+
+    private static final class Connection {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox;
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        private volatile boolean closed;
+
+        private Connection(UUID userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
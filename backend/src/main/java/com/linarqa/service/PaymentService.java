@@ -1,10 +1,15 @@
 package com.linarqa.service;
 
+import com.linarqa.entity.Notification;
 import com.linarqa.entity.Payment;
 import com.linarqa.entity.Student;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.event.PaymentChangedEvent;
 import com.linarqa.repository.PaymentRepository;
 import com.linarqa.repository.StudentRepository;
+import com.linarqa.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +29,12 @@ public class PaymentService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
     private static final BigDecimal MONTHLY_TUITION_AMOUNT = new BigDecimal("300.00");
 
     /**
@@ -55,6 +66,8 @@ public class PaymentService {
                 paymentRepository.save(monthlyBill);
             }
         }
+        
+        publishPaymentChanged();
     }
 
     /**
@@ -84,6 +97,8 @@ public class PaymentService {
                 paymentRepository.save(monthlyBill);
             }
         }
+        
+        publishPaymentChanged();
     }
 
     /**
@@ -105,7 +120,10 @@ public class PaymentService {
             .updatedAt(LocalDateTime.now())
             .build();
         
-        return paymentRepository.save(bill);
+        Payment savedBill = paymentRepository.save(bill);
+        publishPaymentChanged();
+        publishNotification(Notification.NotificationType.PAYMENT_CREATED, savedBill);
+        return savedBill;
     }
 
     /**
@@ -123,7 +141,10 @@ public class PaymentService {
         }
         payment.setUpdatedAt(LocalDateTime.now());
         
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        publishPaymentChanged();
+        publishNotification(Notification.NotificationType.PAYMENT_MARKED_PAID, savedPayment);
+        return savedPayment;
     }
 
     /**
@@ -141,7 +162,9 @@ public class PaymentService {
         }
         payment.setUpdatedAt(LocalDateTime.now());
         
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        publishPaymentChanged();
+        return savedPayment;
     }
 
     /**
@@ -181,6 +204,27 @@ public class PaymentService {
             payment.setUpdatedAt(LocalDateTime.now());
             paymentRepository.save(payment);
         }
+        
+        if (!overduePayments.isEmpty()) {
+            publishPaymentChanged();
+        }
+    }
+
+    private void publishPaymentChanged() {
+        eventPublisher.publishEvent(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.PAYMENT));
+    }
+
+    /**
+     * Notify the admins on behalf of the current user once the transaction commits
+     */
+    private void publishNotification(Notification.NotificationType type, Payment payment) {
+        securityUtils.getCurrentUserId().ifPresent(userId -> {
+            Student student = payment.getStudent();
+            eventPublisher.publishEvent(NotificationEvent.forStudent(type,
+                student.getFirstName(), student.getLastName(),
+                student.getFirstNameArabic(), student.getLastNameArabic(),
+                payment.getAmount().toString(), payment.getId(), userId));
+        });
     }
 
     /**
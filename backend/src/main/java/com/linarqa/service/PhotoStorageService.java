@@ -0,0 +1,274 @@
+package com.linarqa.service;
+
+import com.linarqa.entity.PhotoBlob;
+import com.linarqa.repository.PhotoBlobRepository;
+import com.linarqa.util.PhotoVariants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed photo store shared by kindergarten and extra-course students: every blob is
+ * named by the SHA-256 of its bytes under uploads/photos/aa/bb/, so re-uploads of the same image
+ * share one file, and a reference count decides when the file may be deleted
+ */
+@Slf4j
+@Service
+public class PhotoStorageService {
+
+    /** URL path segment in front of a storage key, whatever host or /api prefix precedes it */
+    public static final String URL_SEGMENT = "/uploads/photos/";
+
+    // Bytes moved per transferFrom call; the only buffer an upload ever needs
+    private static final long TRANSFER_CHUNK = 64 * 1024;
+
+    // Guards the file move / row insert against a concurrent release of the same blob; the
+    // application runs as a single instance, so striped JVM locks are enough
+    private final Object[] locks = new Object[64];
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    // Directory holding every upload; photos live in its photos/ subdirectory
+    @Value("${uploads.root:uploads}")
+    private String uploadRoot;
+
+    @Value("${uploads.max-photo-bytes:10485760}")
+    private long maxPhotoBytes;
+
+    // Empty keeps stored URLs root-relative (/uploads/photos/...); set to a CDN or proxy origin to prefix them
+    @Value("${uploads.public-base-url:}")
+    private String publicBaseUrl;
+
+    public PhotoStorageService() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Store an image stream and take a reference on its blob; returns the storage key
+     */
+    public String store(InputStream body, String extension) throws IOException {
+        extension = normalizeExtension(extension);
+        Path root = getPhotoRoot();
+        Files.createDirectories(root);
+
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+        try {
+            long size = writeLimited(new DigestInputStream(body, digest), temp);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String storageKey = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+
+            boolean created;
+            synchronized (lockFor(storageKey)) {
+                created = photoBlobRepository.incrementRefCount(storageKey) == 0;
+                Path target = resolve(storageKey);
+                if (created || !Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    // Reused blob: restart its grace period so the orphan collector cannot take it
+                    // before the new reference is saved
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                }
+                if (created) {
+                    photoBlobRepository.save(PhotoBlob.builder()
+                        .storageKey(storageKey)
+                        .sizeBytes(size)
+                        .refCount(1)
+                        .build());
+                }
+            }
+            if (created) {
+                photoVariantService.generateAsync(resolve(storageKey));
+            }
+            return storageKey;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Take one more reference on the blob behind a photo URL being assigned to a student (a URL
+     * pasted or copied from another student); false for URLs outside the store or unknown blobs
+     */
+    public boolean acquire(String photoUrl) {
+        String storageKey = keyFromUrl(photoUrl);
+        if (storageKey == null) {
+            return false;
+        }
+        synchronized (lockFor(storageKey)) {
+            return photoBlobRepository.incrementRefCount(storageKey) > 0;
+        }
+    }
+
+    /**
+     * Drop one reference to the blob behind a photo URL, deleting the file and its variants
+     * with the last one; URLs outside the store are ignored
+     */
+    public boolean release(String photoUrl) {
+        String storageKey = keyFromUrl(photoUrl);
+        if (storageKey == null) {
+            return false;
+        }
+        synchronized (lockFor(storageKey)) {
+            photoBlobRepository.decrementRefCount(storageKey);
+            if (photoBlobRepository.deleteIfUnreferenced(storageKey) == 0) {
+                return false;
+            }
+            Path file = resolve(storageKey);
+            photoVariantService.deleteVariants(file);
+            try {
+                return Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete photo blob key={}", storageKey, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * URL stored in photo_url columns for a blob
+     */
+    public String publicUrl(String storageKey) {
+        return publicBaseUrl + URL_SEGMENT + storageKey;
+    }
+
+    /**
+     * Delete a blob nothing references any more, with its variants and row, unless it was written
+     * or reused after the cutoff; returns the bytes reclaimed, or -1 when the blob was kept
+     */
+    public long purgeOrphan(String storageKey, Instant cutoff) {
+        synchronized (lockFor(storageKey)) {
+            Path file = resolve(storageKey);
+            long reclaimed = 0;
+            try {
+                if (!Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    return -1;
+                }
+                for (Integer size : PhotoVariants.SIZES) {
+                    Path variant = PhotoVariants.variantPath(file, size);
+                    if (Files.exists(variant)) {
+                        reclaimed += Files.size(variant);
+                        Files.delete(variant);
+                    }
+                }
+                reclaimed += Files.size(file);
+                Files.delete(file);
+            } catch (NoSuchFileException e) {
+                // Released concurrently
+                return -1;
+            } catch (IOException e) {
+                log.warn("Failed to purge orphaned photo blob key={}", storageKey, e);
+                return reclaimed;
+            }
+            photoBlobRepository.deleteById(storageKey);
+            return reclaimed;
+        }
+    }
+
+    /**
+     * Storage key of a content-addressed photo URL, or null for anything else
+     */
+    public static String keyFromUrl(String photoUrl) {
+        if (photoUrl == null) {
+            return null;
+        }
+        int index = photoUrl.indexOf(URL_SEGMENT);
+        if (index < 0) {
+            return null;
+        }
+        String storageKey = photoUrl.substring(index + URL_SEGMENT.length());
+        // Keys are always aa/bb/<sha256>.<ext>; anything else must not reach the filesystem
+        if (!storageKey.matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.(jpg|png|gif|webp)")) {
+            return null;
+        }
+        return storageKey;
+    }
+
+    /**
+     * Lower-case image extension with its dot; unknown extensions are stored as .jpg
+     */
+    public static String normalizeExtension(String extension) {
+        String normalized = extension == null ? "" : extension.toLowerCase();
+        return switch (normalized) {
+            case ".png", ".gif", ".webp" -> normalized;
+            default -> ".jpg";
+        };
+    }
+
+    public Path resolve(String storageKey) {
+        return getPhotoRoot().resolve(storageKey);
+    }
+
+    public Path getUploadRoot() {
+        return Paths.get(uploadRoot);
+    }
+
+    public Path getPhotoRoot() {
+        return getUploadRoot().resolve("photos");
+    }
+
+    /**
+     * Copy a stream to the target through NIO channels, failing once it exceeds the photo size
+     * limit; returns the number of bytes written
+     */
+    public long writeLimited(InputStream body, Path target) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(body);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            // Ask for one byte past the limit so an oversized body is detected without reading it all
+            while ((transferred = out.transferFrom(source, position, Math.min(TRANSFER_CHUNK, maxPhotoBytes + 1 - position))) > 0) {
+                position += transferred;
+                if (position > maxPhotoBytes) {
+                    throw new RuntimeException("Photo exceeds the maximum size of " + maxPhotoBytes + " bytes");
+                }
+            }
+            if (position == 0) {
+                throw new RuntimeException("File is empty");
+            }
+            return position;
+        }
+    }
+
+    public long getMaxPhotoBytes() {
+        return maxPhotoBytes;
+    }
+
+    private Object lockFor(String storageKey) {
+        return locks[Math.floorMod(storageKey.hashCode(), locks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
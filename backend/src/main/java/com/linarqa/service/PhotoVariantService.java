@@ -0,0 +1,267 @@
+package com.linarqa.service;
+
+import com.linarqa.util.ExifOrientation;
+import com.linarqa.util.PhotoVariants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes the small JPEG variants of uploaded student photos next to the original, so list
+ * pages can load a few KB per avatar instead of the full camera image
+ */
+@Slf4j
+@Service
+public class PhotoVariantService {
+
+    @Autowired
+    @Qualifier("imageExecutor")
+    private TaskExecutor imageExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${uploads.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${uploads.variants.quality:0.8}")
+    private float quality;
+
+    // Read directly rather than through PhotoStorageService, which depends on this service
+    @Value("${uploads.root:uploads}")
+    private String uploadRoot;
+
+    @Value("${uploads.variants.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private Counter generatedCounter;
+    private Counter failedCounter;
+    private Timer generationTimer;
+
+    @PostConstruct
+    void init() {
+        generatedCounter = meterRegistry.counter("uploads.variants.generated");
+        failedCounter = meterRegistry.counter("uploads.variants.failed");
+        generationTimer = meterRegistry.timer("uploads.variants.duration");
+    }
+
+    /**
+     * Queue variant generation for a freshly stored photo
+     */
+    public void generateAsync(Path original) {
+        if (!enabled) {
+            return;
+        }
+        imageExecutor.execute(() -> {
+            try {
+                generate(original);
+            } catch (IOException | RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Photo variant generation failed file={}", original, e);
+            }
+        });
+    }
+
+    /**
+     * Generate every variant of a photo; returns false when the file is not a readable image
+     */
+    public boolean generate(Path original) throws IOException {
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                return false;
+            }
+            // Camera photos are stored sideways with an EXIF rotation the variants would lose
+            source = ExifOrientation.apply(source, ExifOrientation.read(original));
+            for (Integer size : PhotoVariants.SIZES) {
+                writeJpeg(resize(source, size), PhotoVariants.variantPath(original, size));
+            }
+            generatedCounter.increment();
+            return true;
+        } finally {
+            generationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Remove the variants of a photo whose original is being deleted
+     */
+    public void deleteVariants(Path original) {
+        for (Integer size : PhotoVariants.SIZES) {
+            try {
+                Files.deleteIfExists(PhotoVariants.variantPath(original, size));
+            } catch (IOException e) {
+                log.warn("Failed to delete photo variant file={} size={}", original, size, e);
+            }
+        }
+    }
+
+    /**
+     * Give stored photos that are missing variants their copies, off the startup thread; runs
+     * after the legacy photo migration so it sees the final layout
+     */
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingVariants() {
+        if (!enabled || !backfillOnStartup) {
+            return;
+        }
+        imageExecutor.execute(() -> {
+            Path root = Paths.get(uploadRoot, "photos");
+            if (!Files.isDirectory(root)) {
+                return;
+            }
+            int generated = 0;
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (needsVariants(file) && generateQuietly(file)) {
+                        generated++;
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Photo variant backfill failed dir={}", root, e);
+            }
+            if (generated > 0) {
+                log.info("Photo variant backfill generated={}", generated);
+            }
+        });
+    }
+
+    private boolean needsVariants(Path file) {
+        // Dot-files are uploads and variants still being written
+        if (!Files.isRegularFile(file) || PhotoVariants.isVariant(file) || file.getFileName().toString().startsWith(".")) {
+            return false;
+        }
+        return PhotoVariants.SIZES.stream().anyMatch(size -> !Files.exists(PhotoVariants.variantPath(file, size)));
+    }
+
+    private boolean generateQuietly(Path file) {
+        try {
+            return generate(file);
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Photo variant generation failed file={}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Decode the image with source subsampling, so a 12 MP camera photo is never fully expanded
+     * in memory just to produce a 480 px copy
+     */
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int largestVariant = PhotoVariants.SIZES.get(PhotoVariants.SIZES.size() - 1);
+                // Keep at least twice the largest variant so the final downscale still has detail to average
+                int subsampling = Math.max(1, longestEdge / (largestVariant * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale so the longest edge equals the target (never upscaling), halving in steps so
+     * bilinear filtering does not skip pixels on large reductions
+     */
+    private BufferedImage resize(BufferedImage source, int size) {
+        int longestEdge = Math.max(source.getWidth(), source.getHeight());
+        double scale = Math.min(1.0, (double) size / longestEdge);
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        // JPEG has no alpha channel, so transparent PNG areas are flattened onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Write through a temporary file and move it into place, so a half-written variant is never served
+     */
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.linarqa.service;
+
+import com.linarqa.entity.User;
+import com.linarqa.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of authenticated users by email so requests do not load the user row each time.
+ * Evicted by {@link com.linarqa.config.UserCacheEvictionListener} whenever a user is created, updated
+ * or deleted, so role changes and deactivation take effect on the next request.
+ */
+@Service
+public class PrincipalCacheService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a lookup that raced with a user change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void init() {
+        hitCounter = meterRegistry.counter("security.principal.cache", "result", "hit");
+        missCounter = meterRegistry.counter("security.principal.cache", "result", "miss");
+    }
+
+    /**
+     * The active user with the given email, served from cache when loaded within the TTL
+     */
+    public Optional<User> getActiveUser(String email) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && now - cached.loadedAt() < ttlMs) {
+            hitCounter.increment();
+            return Optional.ofNullable(cached.user());
+        }
+        missCounter.increment();
+
+        long loadedGeneration = generation.get();
+        Optional<User> user = userRepository.findByEmail(email).filter(User::isActive);
+        if (principals.size() >= maxSize) {
+            principals.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+        }
+        if (generation.get() == loadedGeneration && principals.size() < maxSize) {
+            principals.put(email, new CachedPrincipal(user.orElse(null), now));
+        }
+        return user;
+    }
+
+    /**
+     * Drop any cached entry for a user, under its current email or an earlier one
+     */
+    public void evict(User user) {
+        generation.incrementAndGet();
+        principals.remove(user.getEmail());
+        principals.values().removeIf(entry -> entry.user() != null && entry.user().getId().equals(user.getId()));
+    }
+
+    private record CachedPrincipal(User user, long loadedAt) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.linarqa.service;
+
+import com.linarqa.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process token buckets per endpoint class and client (user when authenticated, IP otherwise),
+ * plus an optional cap on concurrent requests per class so expensive endpoints cannot take over
+ * the request threads or the CPU
+ */
+@Service
+public class RateLimitService {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> concurrencyLimits = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+            .description("Active rate-limit buckets")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The endpoint class a request path belongs to, or null when it is not limited
+     */
+    public RateLimitProperties.EndpointClass resolve(String path) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        for (RateLimitProperties.EndpointClass endpointClass : properties.getClasses()) {
+            for (String pattern : endpointClass.getPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return endpointClass;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take a token for a client; returns 0 when the request may proceed, otherwise the
+     * number of seconds until the next token is available
+     */
+    public long tryConsume(RateLimitProperties.EndpointClass endpointClass, String clientKey) {
+        String key = endpointClass.getName() + ":" + clientKey;
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+            k -> new TokenBucket(endpointClass.getCapacity(), endpointClass.getRefillPerMinute(), System.nanoTime()));
+        long waitNanos = bucket.tryConsume(System.nanoTime());
+        if (waitNanos == 0) {
+            return 0;
+        }
+        meterRegistry.counter("ratelimit.rejected", "class", endpointClass.getName(), "reason", "rate").increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Reserve one of the class's concurrent slots; false when all are in use. Callers that
+     * get true must call {@link #release}.
+     */
+    public boolean tryEnter(RateLimitProperties.EndpointClass endpointClass) {
+        if (endpointClass.getMaxConcurrent() <= 0) {
+            return true;
+        }
+        Semaphore slots = concurrencyLimits.computeIfAbsent(endpointClass.getName(),
+            name -> new Semaphore(endpointClass.getMaxConcurrent()));
+        if (slots.tryAcquire()) {
+            return true;
+        }
+        meterRegistry.counter("ratelimit.rejected", "class", endpointClass.getName(), "reason", "concurrency").increment();
+        return false;
+    }
+
+    public void release(RateLimitProperties.EndpointClass endpointClass) {
+        Semaphore slots = concurrencyLimits.get(endpointClass.getName());
+        if (slots != null) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Drop buckets of clients that have gone quiet
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getIdleBucketTtlMs());
+        buckets.values().removeIf(bucket -> bucket.lastRefillNanos() - cutoff < 0);
+    }
+
+    /**
+     * Lock-free token bucket: the state is swapped with compare-and-set, refilling lazily
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private final AtomicReference<State> state;
+
+        private TokenBucket(int capacity, double refillPerMinute, long nowNanos) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, nowNanos));
+        }
+
+        private long tryConsume(long nowNanos) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(capacity, current.tokens() + Math.max(0, nowNanos - current.refilledAt()) * tokensPerNano);
+                if (tokens < 1) {
+                    return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, nowNanos))) {
+                    return 0;
+                }
+            }
+        }
+
+        private long lastRefillNanos() {
+            return state.get().refilledAt();
+        }
+
+        private record State(double tokens, long refilledAt) {
+        }
+    }
+}
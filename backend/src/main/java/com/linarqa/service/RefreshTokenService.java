@@ -0,0 +1,151 @@
+package com.linarqa.service;
+
+import com.linarqa.dto.LoginResponse;
+import com.linarqa.entity.RefreshToken;
+import com.linarqa.entity.User;
+import com.linarqa.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and rotates refresh tokens so sessions renew with a table lookup instead of a password
+ * check. Revoked sessions are also kept in memory so their unexpired access tokens are refused.
+ */
+@Slf4j
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Revoked session id -> when the last access token issued for it expires
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+
+    /**
+     * Reload sessions revoked recently enough that their access tokens may still be presented
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadRevokedSessions() {
+        long until = System.currentTimeMillis() + jwtExpiration;
+        for (UUID familyId : refreshTokenRepository.findFamiliesRevokedSince(
+                LocalDateTime.now().minus(Duration.ofMillis(jwtExpiration)))) {
+            revokedSessions.put(familyId.toString(), until);
+        }
+    }
+
+    /**
+     * Start a new session for a user with its first access and refresh tokens
+     */
+    public LoginResponse issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token of the same session.
+     * Presenting a token that was already rotated ends the whole session, since either the
+     * client or an attacker holds a stolen copy; the revocation commits even though the call fails.
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public LoginResponse rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenHash(JwtService.sha256(refreshToken))
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            revokeSession(current.getFamilyId(), now);
+            throw new RuntimeException("Refresh token reuse detected");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new RuntimeException("Refresh token expired");
+        }
+        User user = current.getUser();
+        if (!user.isActive()) {
+            revokeSession(current.getFamilyId(), now);
+            throw new RuntimeException("Account is disabled");
+        }
+        return issue(user, current.getFamilyId());
+    }
+
+    /**
+     * End the session a refresh token belongs to
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(JwtService.sha256(refreshToken))
+                .ifPresent(token -> revokeSession(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Whether access tokens of the given session must be refused
+     */
+    public boolean isSessionRevoked(String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        Long until = revokedSessions.get(sessionId);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    /**
+     * Drop expired refresh tokens and revocations whose access tokens have all expired
+     */
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 15 4 * * ?}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        revokedSessions.values().removeIf(until -> until <= now);
+        log.info("Purged {} expired refresh token(s)", deleted);
+    }
+
+    private LoginResponse issue(User user, UUID familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(JwtService.sha256(refreshToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+                .build());
+        String accessToken = jwtService.generateToken(user.getEmail(), familyId.toString());
+        return new LoginResponse(accessToken, user, refreshToken);
+    }
+
+    private void revokeSession(UUID familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        revokedSessions.put(familyId.toString(), System.currentTimeMillis() + jwtExpiration);
+    }
+}
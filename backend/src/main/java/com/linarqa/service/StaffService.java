@@ -3,8 +3,12 @@ package com.linarqa.service;
 import com.linarqa.dto.StaffDto;
 import com.linarqa.dto.StaffRequest;
 import com.linarqa.entity.Staff;
+import com.linarqa.entity.StaffSalaryHistory;
 import com.linarqa.repository.StaffRepository;
+import com.linarqa.repository.StaffSalaryHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +16,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -23,6 +29,12 @@ public class StaffService {
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private StaffSalaryHistoryRepository salaryHistoryRepository;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
     /**
      * Get all staff with pagination and sorting
      */
@@ -78,6 +90,7 @@ public class StaffService {
                 .build();
 
         Staff savedStaff = staffRepository.save(staff);
+        recordSalaryHistory(savedStaff);
         return new StaffDto(savedStaff);
     }
 
@@ -96,6 +109,10 @@ public class StaffService {
                 }
             });
 
+        boolean payrollChanged = staff.isActive() != request.isActive()
+            || staff.getType() != request.getType()
+            || !sameAmount(staff.getSalary(), request.getSalary());
+
         staff.setFirstName(request.getFirstName());
         staff.setLastName(request.getLastName());
         staff.setFirstNameArabic(request.getFirstNameArabic());
@@ -107,6 +124,9 @@ public class StaffService {
         staff.setActive(request.isActive());
 
         Staff updatedStaff = staffRepository.save(staff);
+        if (payrollChanged) {
+            recordSalaryHistory(updatedStaff);
+        }
         return new StaffDto(updatedStaff);
     }
 
@@ -118,6 +138,7 @@ public class StaffService {
             .orElseThrow(() -> new RuntimeException("Staff not found with id: " + id));
         
         staffRepository.delete(staff);
+        closeSalaryHistory(id, LocalDate.now());
     }
 
     /**
@@ -154,7 +175,10 @@ public class StaffService {
      * Search staff by name
      */
     public List<StaffDto> searchStaffByName(String name) {
-        List<Staff> staffList = staffRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
+        String query = fullTextSearchService.queryFor(name);
+        List<Staff> staffList = query != null
+                ? staffRepository.fullTextSearchByName(query)
+                : staffRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
         return staffList.stream()
                 .map(StaffDto::new)
                 .collect(Collectors.toList());
@@ -164,9 +188,68 @@ public class StaffService {
      * Search staff by Arabic name
      */
     public List<StaffDto> searchStaffByArabicName(String name) {
-        List<Staff> staffList = staffRepository.findByFirstNameArabicContainingIgnoreCaseOrLastNameArabicContainingIgnoreCase(name, name);
+        String query = fullTextSearchService.queryFor(name);
+        List<Staff> staffList = query != null
+                ? staffRepository.fullTextSearchByArabicName(query)
+                : staffRepository.findByFirstNameArabicContainingIgnoreCaseOrLastNameArabicContainingIgnoreCase(name, name);
         return staffList.stream()
                 .map(StaffDto::new)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Give active staff created before salary history existed an open history row
+     * starting at their creation date
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSalaryHistory() {
+        for (Staff staff : staffRepository.findActiveWithoutSalaryHistory()) {
+            LocalDate effectiveFrom = staff.getCreatedAt() != null ? staff.getCreatedAt().toLocalDate() : LocalDate.now();
+            salaryHistoryRepository.save(StaffSalaryHistory.builder()
+                    .staffId(staff.getId())
+                    .staffType(staff.getType())
+                    .salary(staff.getSalary())
+                    .effectiveFrom(effectiveFrom)
+                    .build());
+        }
+    }
+
+    /**
+     * Close the current salary interval and open a new one if the staff member is active
+     */
+    private void recordSalaryHistory(Staff staff) {
+        LocalDate today = LocalDate.now();
+        closeSalaryHistory(staff.getId(), today);
+
+        if (staff.isActive()) {
+            salaryHistoryRepository.save(StaffSalaryHistory.builder()
+                    .staffId(staff.getId())
+                    .staffType(staff.getType())
+                    .salary(staff.getSalary())
+                    .effectiveFrom(today)
+                    .build());
+        }
+    }
+
+    private void closeSalaryHistory(UUID staffId, LocalDate effectiveTo) {
+        salaryHistoryRepository.findFirstByStaffIdAndEffectiveToIsNull(staffId).ifPresent(current -> {
+            // An interval opened today never took effect; drop it instead of keeping an empty range
+            if (!current.getEffectiveFrom().isBefore(effectiveTo)) {
+                salaryHistoryRepository.delete(current);
+            } else {
+                current.setEffectiveTo(effectiveTo);
+                salaryHistoryRepository.save(current);
+            }
+        });
+    }
+
+    /**
+     * Compare salaries by value, so 3000 and 3000.00 are the same salary
+     */
+    private boolean sameAmount(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.compareTo(b) == 0;
+    }
 }
@@ -0,0 +1,38 @@
+package com.linarqa.service;
+
+import com.linarqa.entity.Notification;
+import com.linarqa.entity.Student;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.repository.StudentRepository;
+import com.linarqa.util.SecurityUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class StudentService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    /**
+     * Register a student and notify the admins once the registration commits
+     */
+    public Student createStudent(Student student) {
+        Student savedStudent = studentRepository.save(student);
+        securityUtils.getCurrentUserId().ifPresent(userId ->
+            eventPublisher.publishEvent(NotificationEvent.forStudent(Notification.NotificationType.STUDENT_REGISTERED,
+                savedStudent.getFirstName(), savedStudent.getLastName(),
+                savedStudent.getFirstNameArabic(), savedStudent.getLastNameArabic(),
+                null, savedStudent.getId(), userId)));
+        return savedStudent;
+    }
+}
@@ -0,0 +1,224 @@
+package com.linarqa.service;
+
+import com.linarqa.config.UploadGcProperties;
+import com.linarqa.repository.ExtraStudentRepository;
+import com.linarqa.repository.StudentRepository;
+import com.linarqa.util.PhotoVariants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Deletes uploaded files no photo_url points at any more: photos of deleted students, replaced
+ * photos whose best-effort delete failed, and photos uploaded for enrollments never submitted.
+ * Only files older than the grace period are touched, in batches with a pause in between.
+ */
+@Slf4j
+@Service
+public class UploadGarbageCollector {
+
+    private static final String UPLOADS_SEGMENT = "/uploads/";
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ExtraStudentRepository extraStudentRepository;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private UploadGcProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+
+    public record CollectionResult(long files, long bytes) {
+    }
+
+    /**
+     * Nightly collection run, handed to the maintenance executor
+     */
+    @Scheduled(cron = "${uploads.gc.cron:0 0 4 * * ?}")
+    public void collectOrphanedUploads() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            maintenanceExecutor.execute(() -> collect(Instant.now()));
+        } catch (TaskRejectedException e) {
+            log.warn("Upload GC run skipped, maintenance queue is full");
+        }
+    }
+
+    /**
+     * Delete unreferenced uploads last modified before now minus the grace period
+     */
+    public CollectionResult collect(Instant now) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant cutoff = now.minus(Duration.ofHours(properties.getGracePeriodHours()));
+        Set<String> referenced = referencedUploads();
+        int batchSize = Math.max(1, properties.getBatchSize());
+
+        long files = 0;
+        long bytes = 0;
+        List<Path> batch = new ArrayList<>(batchSize);
+        Path uploadRoot = photoStorageService.getUploadRoot();
+        for (Path dir : List.of(photoStorageService.getPhotoRoot(), uploadRoot.resolve("students"), uploadRoot.resolve("extra-students"))) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) walk::iterator) {
+                    if (!Files.isRegularFile(file) || referenced.contains(uploadName(uploadRoot, file))) {
+                        continue;
+                    }
+                    batch.add(file);
+                    if (batch.size() >= batchSize) {
+                        long[] deleted = deleteBatch(batch, cutoff);
+                        files += deleted[0];
+                        bytes += deleted[1];
+                        batch.clear();
+                        pauseBetweenBatches();
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Upload GC could not walk dir={}", dir, e);
+            }
+        }
+        long[] deleted = deleteBatch(batch, cutoff);
+        files += deleted[0];
+        bytes += deleted[1];
+
+        meterRegistry.counter("uploads.gc.files").increment(files);
+        meterRegistry.counter("uploads.gc.bytes").increment(bytes);
+        sample.stop(meterRegistry.timer("uploads.gc.run"));
+        log.info("Upload GC deleted files={} bytesReclaimed={} referenced={}", files, bytes, referenced.size());
+        return new CollectionResult(files, bytes);
+    }
+
+    /**
+     * Every upload referenced from a photo_url column, as its name under uploads/ without
+     * extension so variants match their original
+     */
+    private Set<String> referencedUploads() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Set<String> referenced = new HashSet<>();
+            try (Stream<String> urls = studentRepository.streamPhotoUrls()) {
+                urls.forEach(url -> addReference(referenced, url));
+            }
+            try (Stream<String> urls = extraStudentRepository.streamPhotoUrls()) {
+                urls.forEach(url -> addReference(referenced, url));
+            }
+            return referenced;
+        });
+    }
+
+    private void addReference(Set<String> referenced, String photoUrl) {
+        int index = photoUrl.indexOf(UPLOADS_SEGMENT);
+        if (index >= 0) {
+            referenced.add(stripExtension(photoUrl.substring(index + UPLOADS_SEGMENT.length())));
+        }
+    }
+
+    private String uploadName(Path uploadRoot, Path file) {
+        String name = stripExtension(uploadRoot.relativize(file).toString().replace('\\', '/'));
+        if (PhotoVariants.isVariant(file)) {
+            name = name.substring(0, name.lastIndexOf('_'));
+        }
+        return name;
+    }
+
+    private static String stripExtension(String name) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        return dot > slash ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Delete the batch's files that are past the cutoff; blobs go through the photo store so a
+     * concurrent upload of the same image is never lost. Returns {files, bytes}.
+     */
+    private long[] deleteBatch(List<Path> batch, Instant cutoff) {
+        Path photoRoot = photoStorageService.getPhotoRoot();
+        long files = 0;
+        long bytes = 0;
+        for (Path file : batch) {
+            long reclaimed;
+            if (file.startsWith(photoRoot) && !PhotoVariants.isVariant(file) && !file.getFileName().toString().startsWith(".")) {
+                reclaimed = photoStorageService.purgeOrphan(photoRoot.relativize(file).toString().replace('\\', '/'), cutoff);
+            } else {
+                reclaimed = deleteIfOlder(file, cutoff);
+            }
+            if (reclaimed >= 0) {
+                files++;
+                bytes += reclaimed;
+            }
+        }
+        return new long[] {files, bytes};
+    }
+
+    /**
+     * Size of the deleted file, or -1 when it was kept
+     */
+    private long deleteIfOlder(Path file, Instant cutoff) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                return -1;
+            }
+            Files.delete(file);
+            return attributes.size();
+        } catch (NoSuchFileException e) {
+            // Deleted along with its original earlier in the run
+            return -1;
+        } catch (IOException e) {
+            log.warn("Upload GC failed to delete file={}", file, e);
+            return -1;
+        }
+    }
+
+    private void pauseBetweenBatches() {
+        if (properties.getBatchPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getBatchPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Upload GC interrupted");
+        }
+    }
+}
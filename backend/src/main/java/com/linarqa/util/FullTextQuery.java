@@ -0,0 +1,40 @@
+package com.linarqa.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a user's search box input into a MySQL boolean-mode MATCH ... AGAINST expression for
+ * the ngram FULLTEXT indexes: every word becomes a required term, matched like a substring
+ */
+public final class FullTextQuery {
+
+    // ngram_token_size the indexes are built with (MySQL default); shorter words can never match
+    public static final int MIN_TERM_LENGTH = 2;
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Boolean-mode expression for the input, or null when it cannot be answered by the
+     * FULLTEXT index (blank, or a word shorter than the ngram size) and LIKE should be used
+     */
+    public static String booleanQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+        // Boolean-mode operators typed by the user must not change the meaning of the query
+        String cleaned = searchTerm.replaceAll("[+\\-<>()~*\"@]", " ").trim();
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : cleaned.split("\\s+")) {
+            if (word.codePointCount(0, word.length()) < MIN_TERM_LENGTH) {
+                return null;
+            }
+            terms.add("+" + word);
+        }
+        return String.join(" ", terms);
+    }
+}
@@ -0,0 +1,21 @@
+package com.linarqa.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in every N hot-path debug events through, so per-request tracing stays affordable
+ * when DEBUG is switched on for a busy package
+ */
+public class LogSampler {
+
+    private final int rate;
+    private final AtomicLong counter = new AtomicLong();
+
+    public LogSampler(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    public boolean sample() {
+        return rate == 1 || counter.getAndIncrement() % rate == 0;
+    }
+}
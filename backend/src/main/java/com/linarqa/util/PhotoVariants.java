@@ -0,0 +1,67 @@
+package com.linarqa.util;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Naming of the resized copies stored next to an uploaded photo: photo.png gets
+ * photo_64.jpg, photo_160.jpg and photo_480.jpg in the same directory
+ */
+public final class PhotoVariants {
+
+    /** Longest edge in pixels of each generated variant, smallest first */
+    public static final List<Integer> SIZES = List.of(64, 160, 480);
+
+    private static final String UPLOADS_SEGMENT = "/uploads/";
+
+    private PhotoVariants() {
+    }
+
+    /**
+     * Variant URLs keyed by size for a locally uploaded photo, or an empty map for
+     * missing and external photos; the files are not checked and may not exist yet
+     */
+    public static Map<Integer, String> urlsFor(String photoUrl) {
+        if (photoUrl == null || !photoUrl.contains(UPLOADS_SEGMENT) || isVariantName(photoUrl)) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (Integer size : SIZES) {
+            urls.put(size, variantName(photoUrl, size));
+        }
+        return urls;
+    }
+
+    /**
+     * Path of one variant of an original file
+     */
+    public static Path variantPath(Path original, int size) {
+        return original.resolveSibling(variantName(original.getFileName().toString(), size));
+    }
+
+    /**
+     * True for files written by the variant pipeline, which must never get variants of their own
+     */
+    public static boolean isVariant(Path file) {
+        return isVariantName(file.getFileName().toString());
+    }
+
+    private static boolean isVariantName(String name) {
+        for (Integer size : SIZES) {
+            if (name.endsWith("_" + size + ".jpg")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String variantName(String name, int size) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        String base = dot > slash ? name.substring(0, dot) : name;
+        return base + "_" + size + ".jpg";
+    }
+}
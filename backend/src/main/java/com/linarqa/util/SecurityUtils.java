@@ -1,7 +1,8 @@
 package com.linarqa.util;
 
 import com.linarqa.entity.User;
-import com.linarqa.repository.UserRepository;
+import com.linarqa.service.PrincipalCacheService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,11 +10,12 @@ import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
+@Slf4j
 @Component
 public class SecurityUtils {
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCacheService principalCacheService;
 
     /**
      * Get the current authenticated user from the security context
@@ -21,34 +23,23 @@ public class SecurityUtils {
     public Optional<User> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
-        System.out.println("🔍 SecurityUtils.getCurrentUser() - Authentication: " + 
-            (authentication != null ? authentication.getName() : "null"));
-        
         if (authentication != null && authentication.isAuthenticated() && 
             !"anonymousUser".equals(authentication.getPrincipal())) {
             
             // Check if the principal is already a User object
             if (authentication.getPrincipal() instanceof User) {
-                User user = (User) authentication.getPrincipal();
-                System.out.println("✅ Found user from principal: " + user.getFullName() + " (Role: " + user.getRole() + ")");
-                return Optional.of(user);
+                return Optional.of((User) authentication.getPrincipal());
             }
             
             // Fallback to email lookup for backward compatibility
             String email = authentication.getName();
-            System.out.println("👤 Looking up user with email: " + email);
-            
-            Optional<User> user = userRepository.findByEmail(email);
-            if (user.isPresent()) {
-                System.out.println("✅ Found user: " + user.get().getFullName() + " (Role: " + user.get().getRole() + ")");
-            } else {
-                System.out.println("❌ User not found with email: " + email);
+            Optional<User> user = principalCacheService.getActiveUser(email);
+            if (user.isEmpty()) {
+                log.debug("No active user found for authenticated name {}", email);
             }
-            
             return user;
         }
         
-        System.out.println("⚠️ No authenticated user found");
         return Optional.empty();
     }
 
@@ -0,0 +1,20 @@
+-- Create monthly balance snapshots table (frozen balances of closed months)
+CREATE TABLE monthly_balance_snapshots (
+    id CHAR(36) PRIMARY KEY,
+    balance_year INT NOT NULL,
+    balance_month INT NOT NULL,
+    total_income DECIMAL(12,2) NOT NULL,
+    total_salaries DECIMAL(12,2) NOT NULL,
+    net_income DECIMAL(12,2) NOT NULL,
+    payload TEXT NOT NULL,
+    closed_by_user_id CHAR(36),
+    closed_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    
+    CONSTRAINT uk_monthly_balance_snapshots_year_month UNIQUE (balance_year, balance_month),
+    CONSTRAINT fk_monthly_balance_snapshots_closed_by 
+        FOREIGN KEY (closed_by_user_id) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT chk_monthly_balance_snapshots_month 
+        CHECK (balance_month BETWEEN 1 AND 12)
+);
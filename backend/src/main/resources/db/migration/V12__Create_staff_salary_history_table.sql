@@ -0,0 +1,25 @@
+-- Create effective-dated staff salary history
+CREATE TABLE staff_salary_history (
+    id CHAR(36) PRIMARY KEY,
+    staff_id CHAR(36) NOT NULL,
+    staff_type VARCHAR(50) NOT NULL,
+    salary DECIMAL(10,2) NOT NULL,
+    effective_from DATE NOT NULL,
+    effective_to DATE NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT chk_staff_salary_history_type 
+        CHECK (staff_type IN ('ASSISTANT', 'EDUCATRICE', 'AIDE_EDUCATRICE'))
+);
+
+-- Interval index for payroll lookups by month
+CREATE INDEX idx_staff_salary_history_interval ON staff_salary_history(effective_from, effective_to);
+
+-- Index for finding the open interval of a staff member
+CREATE INDEX idx_staff_salary_history_staff ON staff_salary_history(staff_id, effective_to);
+
+-- Backfill: current salary of active staff, effective from their creation date
+INSERT INTO staff_salary_history (id, staff_id, staff_type, salary, effective_from, effective_to)
+SELECT UUID(), id, type, salary, DATE(created_at), NULL
+FROM staff
+WHERE active = TRUE;
@@ -0,0 +1,2 @@
+-- Retention job selects expired rows per type, oldest first
+CREATE INDEX idx_notifications_type_created ON notifications(type, created_at);
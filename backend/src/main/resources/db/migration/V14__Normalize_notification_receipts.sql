@@ -0,0 +1,55 @@
+-- Store notification content once and per-recipient read state in a narrow receipts table
+CREATE TABLE notification_receipts (
+    id CHAR(36) PRIMARY KEY,
+    notification_id CHAR(36) NOT NULL,
+    user_id CHAR(36) NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    read_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT uk_notification_receipts_notification_user 
+        UNIQUE (notification_id, user_id),
+    CONSTRAINT fk_notification_receipts_notification 
+        FOREIGN KEY (notification_id) REFERENCES notifications(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notification_receipts_user 
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Covering indexes: unread count and unread inbox, full inbox paging
+CREATE INDEX idx_notification_receipts_user_read_created ON notification_receipts(user_id, is_read, created_at);
+CREATE INDEX idx_notification_receipts_user_created ON notification_receipts(user_id, created_at);
+
+-- The per-admin copies of one event share type, message, related entity, creator and creation time;
+-- the lowest id of each group becomes the single stored notification
+CREATE TEMPORARY TABLE notification_canonical AS
+SELECT n.id,
+       (SELECT MIN(c.id) FROM notifications c
+         WHERE c.type = n.type
+           AND c.message = n.message
+           AND c.created_at = n.created_at
+           AND c.related_entity_id <=> n.related_entity_id
+           AND c.created_by_user_id <=> n.created_by_user_id) AS canonical_id
+FROM notifications n;
+
+INSERT IGNORE INTO notification_receipts (id, notification_id, user_id, is_read, read_at, created_at)
+SELECT UUID(), m.canonical_id, n.target_user_id, n.is_read, n.read_at, n.created_at
+FROM notifications n
+JOIN notification_canonical m ON m.id = n.id
+WHERE n.target_user_id IS NOT NULL;
+
+DELETE n FROM notifications n
+JOIN notification_canonical m ON m.id = n.id
+WHERE m.id <> m.canonical_id;
+
+DROP TEMPORARY TABLE notification_canonical;
+
+-- Per-recipient columns now live on the receipts
+ALTER TABLE notifications DROP FOREIGN KEY fk_notifications_target_user;
+ALTER TABLE notifications DROP CHECK chk_notification_status;
+DROP INDEX idx_notifications_target_user ON notifications;
+DROP INDEX idx_notifications_is_read ON notifications;
+ALTER TABLE notifications
+    DROP COLUMN target_user_id,
+    DROP COLUMN is_read,
+    DROP COLUMN read_at,
+    DROP COLUMN status;
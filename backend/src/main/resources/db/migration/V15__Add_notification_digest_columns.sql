@@ -0,0 +1,4 @@
+-- Digest notifications stand for a burst of coalesced events of one type
+ALTER TABLE notifications
+    ADD COLUMN aggregate_count INT NULL AFTER related_entity_id,
+    ADD COLUMN aggregate_since TIMESTAMP NULL AFTER aggregate_count;
@@ -0,0 +1,3 @@
+-- Keyset feed seeks on (user_id, created_at, notification_id); replaces the two-column inbox index
+DROP INDEX idx_notification_receipts_user_created ON notification_receipts;
+CREATE INDEX idx_notification_receipts_user_created ON notification_receipts(user_id, created_at, notification_id);
@@ -0,0 +1,10 @@
+-- Content-addressed photo storage: files live under uploads/photos/<aa>/<bb>/<sha256>.<ext>
+-- and identical uploads share one file; ref_count is the number of photo URLs pointing at it.
+-- Existing students.photo_url / extra_students.photo_url values are moved to the new layout by
+-- the application on startup (uploads.migrate-legacy-on-startup), since that needs the file hashes.
+CREATE TABLE photo_blobs (
+    storage_key VARCHAR(100) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,23 @@
+-- FULLTEXT indexes for the search boxes (search.fulltext.enabled), replacing LIKE '%term%' scans.
+-- The ngram parser splits text into ngram_token_size (default 2) character tokens, so Arabic
+-- names, Latin names and phone digits all match on substrings without word boundaries.
+-- The column lists must stay identical to the MATCH(...) clauses in the repositories, and the
+-- index names to FullTextSearchService, which only switches searches over once all three exist.
+
+-- The ngram parser drops every token that contains a stopword, and the default InnoDB list
+-- includes the single letters "a" and "i": every bigram of names like "Sara", "Ali" or "Amina"
+-- would be skipped and those names never found. Stopwords are read when the index is built, so
+-- turn them off for this session; keep innodb_ft_enable_stopword = OFF in the server config too,
+-- or an OPTIMIZE / index rebuild will bring the list back.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE extra_students
+    ADD FULLTEXT INDEX ft_extra_students_search (first_name, last_name, first_name_arabic, last_name_arabic,
+                                                 responsible_name, responsible_name_arabic, responsible_phone)
+    WITH PARSER ngram;
+
+ALTER TABLE staff
+    ADD FULLTEXT INDEX ft_staff_name (first_name, last_name) WITH PARSER ngram;
+
+ALTER TABLE staff
+    ADD FULLTEXT INDEX ft_staff_name_arabic (first_name_arabic, last_name_arabic) WITH PARSER ngram;
@@ -0,0 +1,82 @@
+package com.linarqa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.LoginResponse;
+import com.linarqa.entity.User;
+import com.linarqa.repository.UserRepository;
+import com.linarqa.service.JwtService;
+import com.linarqa.service.RefreshTokenService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    @Test
+    public void testExpiredTokenIsUnauthorizedAndRefreshRenewsIt() throws Exception {
+        User user = userRepository.findByRole(User.UserRole.OWNER).get(0);
+        LoginResponse login = refreshTokenService.issue(user);
+        String sessionId = jwtService.validate(login.getToken()).get(JwtService.SESSION_CLAIM, String.class);
+        String expired = Jwts.builder()
+            .subject(user.getEmail())
+            .claim(JwtService.SESSION_CLAIM, sessionId)
+            .issuedAt(new Date(System.currentTimeMillis() - 120000))
+            .expiration(new Date(System.currentTimeMillis() - 60000))
+            .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+            .compact();
+
+        mockMvc.perform(get("/api/staff").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/staff"))
+            .andExpect(status().isUnauthorized());
+
+        String body = mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", login.getRefreshToken()))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        LoginResponse refreshed = objectMapper.readValue(body, LoginResponse.class);
+        assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+
+        mockMvc.perform(get("/api/staff").header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshed.getToken()))
+            .andExpect(status().isOk());
+    }
+}
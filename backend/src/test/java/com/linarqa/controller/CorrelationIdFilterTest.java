@@ -0,0 +1,38 @@
+package com.linarqa.controller;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.config.CorrelationIdFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CorrelationIdFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testWellFormedRequestIdIsKept() throws Exception {
+        String echoed = mockMvc.perform(get("/api/uploads/missing.jpg").header(CorrelationIdFilter.HEADER, "edge-01.abc_42"))
+            .andReturn().getResponse().getHeader(CorrelationIdFilter.HEADER);
+        assertEquals("edge-01.abc_42", echoed);
+    }
+
+    @Test
+    public void testRequestIdThatCouldForgeLogFieldsIsReplaced() throws Exception {
+        String forged = "x level=ERROR user=42";
+        String echoed = mockMvc.perform(get("/api/uploads/missing.jpg").header(CorrelationIdFilter.HEADER, forged))
+            .andReturn().getResponse().getHeader(CorrelationIdFilter.HEADER);
+        assertNotEquals(forged, echoed);
+        assertTrue(echoed.matches("[0-9a-f-]{36}"));
+    }
+}
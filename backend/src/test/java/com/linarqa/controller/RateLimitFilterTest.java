@@ -0,0 +1,67 @@
+package com.linarqa.controller;
+
+import com.linarqa.LinarqaApplication;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RateLimitFilterTest {
+
+    private static final String OFFICE_IP = "10.20.30.40";
+    private static final int REJECTED_CREDENTIALS = -1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testLoginIsLimitedPerIpAndEmail() throws Exception {
+        String locked = "locked-" + UUID.randomUUID() + "@linarqa.com";
+        String colleague = "colleague-" + UUID.randomUUID() + "@linarqa.com";
+
+        // The body still reaches the controller after the filter has read the email from it
+        assertEquals(REJECTED_CREDENTIALS, login(locked));
+
+        int status = REJECTED_CREDENTIALS;
+        for (int i = 0; i < 20 && status != 429; i++) {
+            status = login(" " + locked.toUpperCase() + " ");
+        }
+        assertEquals(429, status);
+
+        // Someone else signing in from the same office IP is not affected
+        assertEquals(REJECTED_CREDENTIALS, login(colleague));
+    }
+
+    /**
+     * Response status, or REJECTED_CREDENTIALS when the login reached the controller and failed
+     */
+    private int login(String email) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}")
+            .with(req -> {
+                req.setRemoteAddr(OFFICE_IP);
+                return req;
+            });
+        try {
+            return mockMvc.perform(request).andReturn().getResponse().getStatus();
+        } catch (ServletException e) {
+            // AuthService throws for bad credentials and MockMvc has no error page to turn it into a status
+            assertEquals("Invalid email or password", e.getRootCause().getMessage());
+            return REJECTED_CREDENTIALS;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.linarqa.controller;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.service.PhotoStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UploadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Test
+    public void testContentAddressedPhotoIsServedImmutableWithRangeSupport() throws Exception {
+        String content = "photo-" + UUID.randomUUID();
+        String storageKey = photoStorageService.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), ".jpg");
+        String url = photoStorageService.publicUrl(storageKey);
+        String hash = storageKey.substring(storageKey.lastIndexOf('/') + 1, storageKey.lastIndexOf('.'));
+
+        try {
+            mockMvc.perform(get("/api" + url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().string(content));
+
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+
+            mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-5/" + content.length()))
+                .andExpect(content().string("photo-"));
+        } finally {
+            photoStorageService.release(url);
+        }
+    }
+
+    @Test
+    public void testMissingAndEscapingPathsAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/uploads/photos/00/00/missing.jpg"))
+            .andExpect(status().isNotFound());
+        // Rejected by the firewall before it reaches the controller, which would refuse it too
+        mockMvc.perform(get("/uploads/..%2F..%2Fpom.xml"))
+            .andExpect(status().is4xxClientError());
+    }
+}
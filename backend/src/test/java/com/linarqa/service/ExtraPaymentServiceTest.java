@@ -0,0 +1,85 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.ExtraCourse;
+import com.linarqa.entity.ExtraPayment;
+import com.linarqa.entity.ExtraStudent;
+import com.linarqa.entity.ExtraStudentEnrollment;
+import com.linarqa.repository.ExtraCourseRepository;
+import com.linarqa.repository.ExtraPaymentRepository;
+import com.linarqa.repository.ExtraStudentEnrollmentRepository;
+import com.linarqa.repository.ExtraStudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class ExtraPaymentServiceTest {
+
+    @Autowired
+    private ExtraPaymentService extraPaymentService;
+
+    @Autowired
+    private ExtraPaymentRepository extraPaymentRepository;
+
+    @Autowired
+    private ExtraStudentRepository extraStudentRepository;
+
+    @Autowired
+    private ExtraCourseRepository extraCourseRepository;
+
+    @Autowired
+    private ExtraStudentEnrollmentRepository enrollmentRepository;
+
+    @Test
+    @Transactional
+    public void testGenerateMonthlyBillsOncePerStudentAndCourse() {
+        ExtraStudent student = new ExtraStudent();
+        student.setFirstName("Test");
+        student.setLastName("Extra");
+        student.setBirthDate(LocalDate.of(2012, 5, 1));
+        student.setResponsibleName("Test Responsible");
+        student.setResponsiblePhone("0612345678");
+        ExtraStudent savedStudent = extraStudentRepository.save(student);
+
+        ExtraCourse course = extraCourseRepository.save(ExtraCourse.builder()
+            .title("Robotique")
+            .monthlyPrice(new BigDecimal("150.00"))
+            .capacity(10)
+            .build());
+
+        // Two active enrollments in the same course must still produce a single bill
+        for (int i = 0; i < 2; i++) {
+            enrollmentRepository.save(ExtraStudentEnrollment.builder()
+                .extraStudent(savedStudent)
+                .course(course)
+                .status(ExtraStudentEnrollment.EnrollmentStatus.ACTIVE)
+                .enrollmentDate(LocalDate.of(2024, 1, 1))
+                .build());
+        }
+
+        extraPaymentService.generateMonthlyBillsForMonth(2024, 3);
+        extraPaymentService.generateMonthlyBillsForMonth(2024, 3);
+
+        List<ExtraPayment> bills = extraPaymentRepository.findByExtraStudentId(savedStudent.getId());
+        assertEquals(1, bills.size());
+
+        ExtraPayment bill = bills.get(0);
+        assertEquals(new BigDecimal("150.00"), bill.getAmount());
+        assertEquals(ExtraPayment.PaymentStatus.UNPAID, bill.getStatus());
+        assertEquals(LocalDate.of(2024, 3, 1), bill.getDueDate());
+
+        // Next month is billed independently
+        extraPaymentService.generateMonthlyBillsForMonth(2024, 4);
+        assertEquals(2, extraPaymentRepository.findByExtraStudentId(savedStudent.getId()).size());
+    }
+}
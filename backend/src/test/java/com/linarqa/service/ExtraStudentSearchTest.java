@@ -0,0 +1,77 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.ExtraStudentDto;
+import com.linarqa.entity.ExtraStudent;
+import com.linarqa.repository.ExtraStudentRepository;
+import com.linarqa.util.FullTextQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class ExtraStudentSearchTest {
+
+    @Autowired
+    private ExtraStudentService extraStudentService;
+
+    @Autowired
+    private ExtraStudentRepository extraStudentRepository;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Test
+    public void testBooleanQueryRequiresEveryWord() {
+        assertEquals("+Amina +0612", FullTextQuery.booleanQuery("  Amina   0612 "));
+        assertEquals("+أمينة", FullTextQuery.booleanQuery("أمينة"));
+        // Every bigram of these contains "a" or "i", which V19 keeps indexed by disabling stopwords
+        assertEquals("+Sara", FullTextQuery.booleanQuery("Sara"));
+        assertEquals("+Ali", FullTextQuery.booleanQuery("Ali"));
+        // Operators typed by the user are treated as separators
+        assertEquals("+Amina +Idrissi", FullTextQuery.booleanQuery("Amina -Idrissi*"));
+    }
+
+    @Test
+    public void testBooleanQueryFallsBackForShortOrBlankInput() {
+        assertNull(FullTextQuery.booleanQuery(null));
+        assertNull(FullTextQuery.booleanQuery("  "));
+        assertNull(FullTextQuery.booleanQuery("\"()\""));
+        assertNull(FullTextQuery.booleanQuery("Amina B"));
+    }
+
+    @Test
+    public void testSearchUsesLikeFallbackOnH2() {
+        ExtraStudent student = new ExtraStudent();
+        student.setFirstName("Sara");
+        student.setLastName("Fallback" + UUID.randomUUID().toString().substring(0, 8));
+        student.setBirthDate(LocalDate.of(2015, 1, 1));
+        student.setResponsibleName("Test Parent");
+        student.setResponsiblePhone("0612345678");
+        student = extraStudentRepository.save(student);
+
+        try {
+            assertFalse(fullTextSearchService.isAvailable());
+            UUID id = student.getId();
+
+            List<ExtraStudentDto> byName = extraStudentService.searchExtraStudents("Sara");
+            assertTrue(byName.stream().anyMatch(dto -> dto.getId().equals(id)));
+
+            List<ExtraStudentDto> byPartialName = extraStudentService.searchExtraStudents("ar");
+            assertTrue(byPartialName.stream().anyMatch(dto -> dto.getId().equals(id)));
+
+            List<ExtraStudentDto> byPhone = extraStudentService.getExtraStudentsByStatusAndSearch(ExtraStudent.StudentStatus.ACTIVE, "2345");
+            assertTrue(byPhone.stream().anyMatch(dto -> dto.getId().equals(id)));
+        } finally {
+            extraStudentRepository.deleteById(student.getId());
+        }
+    }
+}
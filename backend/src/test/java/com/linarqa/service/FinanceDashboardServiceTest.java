@@ -0,0 +1,124 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.Payment;
+import com.linarqa.entity.Student;
+import com.linarqa.event.PaymentChangedEvent;
+import com.linarqa.repository.PaymentRepository;
+import com.linarqa.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class FinanceDashboardServiceTest {
+
+    @Autowired
+    private FinanceDashboardService financeDashboardService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    public void testSnapshotRefreshesAfterPaymentChange() {
+        // Start from a clean snapshot
+        financeDashboardService.refreshIfStale();
+        Map<String, Object> before = financeDashboardService.getPendingPayments();
+
+        // Saved straight through the repository, so no event is published
+        Student student = saveStudent();
+        Payment payment = savePendingPayment(student);
+        try {
+            financeDashboardService.refreshIfStale();
+            Map<String, Object> unchanged = financeDashboardService.getPendingPayments();
+            assertEquals(before.get("kindergartenCount"), unchanged.get("kindergartenCount"));
+            assertEquals(before.get("snapshotComputedAt"), unchanged.get("snapshotComputedAt"));
+
+            eventPublisher.publishEvent(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.PAYMENT));
+            financeDashboardService.refreshIfStale();
+
+            Map<String, Object> after = financeDashboardService.getPendingPayments();
+            assertEquals((Integer) before.get("kindergartenCount") + 1, after.get("kindergartenCount"));
+            assertEquals(0, ((BigDecimal) after.get("kindergartenPending"))
+                .subtract((BigDecimal) before.get("kindergartenPending")).compareTo(new BigDecimal("275.00")));
+        } finally {
+            paymentRepository.deleteById(payment.getId());
+            studentRepository.deleteById(student.getId());
+            financeDashboardService.onPaymentChanged(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.PAYMENT));
+        }
+    }
+
+    @Test
+    public void testSnapshotRefreshesOnceOlderThanInterval() {
+        financeDashboardService.refreshIfStale();
+        Student student = saveStudent();
+        Payment payment = savePendingPayment(student);
+        Object countBefore = financeDashboardService.getPendingPayments().get("kindergartenCount");
+
+        Object interval = ReflectionTestUtils.getField(financeDashboardService, "refreshIntervalSeconds");
+        ReflectionTestUtils.setField(financeDashboardService, "refreshIntervalSeconds", 0L);
+        try {
+            financeDashboardService.refreshIfStale();
+            assertEquals((Integer) countBefore + 1, financeDashboardService.getPendingPayments().get("kindergartenCount"));
+        } finally {
+            ReflectionTestUtils.setField(financeDashboardService, "refreshIntervalSeconds", interval);
+            paymentRepository.deleteById(payment.getId());
+            studentRepository.deleteById(student.getId());
+            financeDashboardService.onPaymentChanged(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.PAYMENT));
+        }
+    }
+
+    @Test
+    public void testResponsesCarrySnapshotAge() throws Exception {
+        financeDashboardService.onPaymentChanged(new PaymentChangedEvent(PaymentChangedEvent.PaymentSource.PAYMENT));
+        financeDashboardService.refreshIfStale();
+        Thread.sleep(20);
+
+        Map<String, Object> summary = financeDashboardService.getCurrentMonthSummary();
+        Map<String, Object> pending = financeDashboardService.getPendingPayments();
+
+        assertInstanceOf(LocalDateTime.class, summary.get("snapshotComputedAt"));
+        assertEquals(summary.get("snapshotComputedAt"), pending.get("snapshotComputedAt"));
+        long ageMs = (Long) summary.get("snapshotAgeMs");
+        assertTrue(ageMs >= 20, "age was " + ageMs);
+        assertTrue(ageMs < 30_000, "age was " + ageMs);
+        assertEquals(LocalDate.now().getMonthValue(), summary.get("month"));
+    }
+
+    private Student saveStudent() {
+        return studentRepository.save(Student.builder()
+            .firstName("Dashboard")
+            .lastName("Test")
+            .birthDate(LocalDate.of(2018, 1, 1))
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .build());
+    }
+
+    private Payment savePendingPayment(Student student) {
+        return paymentRepository.save(Payment.builder()
+            .student(student)
+            .type(Payment.PaymentType.TUITION)
+            .amount(new BigDecimal("275.00"))
+            .status(Payment.PaymentStatus.UNPAID)
+            .dueDate(LocalDate.now())
+            .build());
+    }
+}
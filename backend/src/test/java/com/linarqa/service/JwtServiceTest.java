@@ -0,0 +1,49 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class JwtServiceTest {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    @Test
+    public void testTokenIsVerifiedOnceAndRejectedWhenTamperedOrExpired() {
+        String token = jwtService.generateToken("owner@linarqa.com");
+
+        Claims claims = jwtService.validate(token);
+        assertNotNull(claims);
+        assertEquals("owner@linarqa.com", claims.getSubject());
+        assertSame(claims, jwtService.validate(token));
+        assertEquals("owner@linarqa.com", jwtService.extractEmail(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertNull(jwtService.validate(tampered));
+        assertFalse(jwtService.isTokenValid("not-a-token"));
+
+        String expired = Jwts.builder()
+            .subject("owner@linarqa.com")
+            .issuedAt(new Date(System.currentTimeMillis() - 120000))
+            .expiration(new Date(System.currentTimeMillis() - 60000))
+            .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+            .compact();
+        assertNull(jwtService.validate(expired));
+    }
+}
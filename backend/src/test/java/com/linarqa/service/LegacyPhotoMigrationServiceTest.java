@@ -0,0 +1,85 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.Student;
+import com.linarqa.repository.PhotoBlobRepository;
+import com.linarqa.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class LegacyPhotoMigrationServiceTest {
+
+    @Autowired
+    private LegacyPhotoMigrationService legacyPhotoMigrationService;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Test
+    public void testLegacyPhotoIsMovedIntoContentAddressedStore() throws Exception {
+        String filename = UUID.randomUUID() + ".jpg";
+        Path legacyFile = photoStorageService.getUploadRoot().resolve("students").resolve(filename);
+        Files.createDirectories(legacyFile.getParent());
+        byte[] content = ("legacy-" + filename).getBytes(StandardCharsets.UTF_8);
+        Files.write(legacyFile, content);
+
+        Student student = studentRepository.save(Student.builder()
+            .firstName("Legacy")
+            .lastName("Photo")
+            .birthDate(LocalDate.of(2018, 1, 1))
+            .studentType(Student.StudentType.KINDERGARTEN)
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .status(Student.StudentStatus.ACTIVE)
+            .photoUrl("http://localhost:8080/api/uploads/students/" + filename)
+            .build());
+        Student missing = studentRepository.save(Student.builder()
+            .firstName("Missing")
+            .lastName("Photo")
+            .birthDate(LocalDate.of(2018, 1, 1))
+            .studentType(Student.StudentType.KINDERGARTEN)
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .status(Student.StudentStatus.ACTIVE)
+            .photoUrl("/api/uploads/students/" + UUID.randomUUID() + ".jpg")
+            .build());
+
+        try {
+            assertTrue(legacyPhotoMigrationService.migrate() >= 1);
+
+            String photoUrl = studentRepository.findById(student.getId()).orElseThrow().getPhotoUrl();
+            assertTrue(photoUrl.startsWith("/uploads/photos/"));
+            String storageKey = PhotoStorageService.keyFromUrl(photoUrl);
+            assertArrayEquals(content, Files.readAllBytes(photoStorageService.resolve(storageKey)));
+            assertEquals(1, photoBlobRepository.findById(storageKey).orElseThrow().getRefCount());
+            assertFalse(Files.exists(legacyFile));
+
+            // A row whose file is gone keeps its URL
+            assertEquals(missing.getPhotoUrl(), studentRepository.findById(missing.getId()).orElseThrow().getPhotoUrl());
+
+            photoStorageService.release(photoUrl);
+        } finally {
+            Files.deleteIfExists(legacyFile);
+            studentRepository.deleteById(student.getId());
+            studentRepository.deleteById(missing.getId());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.Payment;
+import com.linarqa.dto.StaffDto;
+import com.linarqa.dto.StaffRequest;
+import com.linarqa.entity.Staff;
+import com.linarqa.entity.StaffSalaryHistory;
+import com.linarqa.entity.Student;
+import com.linarqa.repository.PaymentRepository;
+import com.linarqa.repository.StaffSalaryHistoryRepository;
+import com.linarqa.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class MonthlyBalanceServiceTest {
+
+    private static final int YEAR = 2019;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private StaffSalaryHistoryRepository salaryHistoryRepository;
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void testYearlyBalanceMatchesMonthlyBalances() {
+        Student student = studentRepository.save(Student.builder()
+            .firstName("Balance")
+            .lastName("Test")
+            .birthDate(LocalDate.of(2016, 1, 1))
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .build());
+
+        savePayment(student, Payment.PaymentType.TUITION, "300.00", Payment.PaymentStatus.PAID, LocalDate.of(YEAR, 3, 2), LocalDate.of(YEAR, 3, 5));
+        savePayment(student, Payment.PaymentType.MATERIALS, "50.00", Payment.PaymentStatus.PAID, LocalDate.of(YEAR, 3, 2), LocalDate.of(YEAR, 3, 20));
+        savePayment(student, Payment.PaymentType.TUITION, "300.00", Payment.PaymentStatus.PAID, LocalDate.of(YEAR, 4, 1), LocalDate.of(YEAR, 4, 3));
+        savePayment(student, Payment.PaymentType.TUITION, "300.00", Payment.PaymentStatus.UNPAID, LocalDate.of(YEAR, 3, 1), null);
+
+        Map<String, Object> march = monthlyBalanceService.getMonthlyBalance(YEAR, 3);
+        assertEquals(new BigDecimal("350.00"), march.get("kindergartenIncome"));
+
+        Map<String, Object> kindergartenBreakdown = (Map<String, Object>) march.get("kindergartenBreakdown");
+        assertEquals(2, kindergartenBreakdown.get("totalPayments"));
+        Map<String, BigDecimal> byType = (Map<String, BigDecimal>) kindergartenBreakdown.get("byType");
+        assertEquals(new BigDecimal("300.00"), byType.get("TUITION"));
+        assertEquals(new BigDecimal("50.00"), byType.get("MATERIALS"));
+
+        Map<String, Object> provisional = (Map<String, Object>) march.get("provisionalIncome");
+        assertEquals(new BigDecimal("300.00"), provisional.get("kindergartenUnpaid"));
+        assertEquals(1, provisional.get("kindergartenUnpaidCount"));
+
+        Map<String, Object> january = monthlyBalanceService.getMonthlyBalance(YEAR, 1);
+        assertEquals(BigDecimal.ZERO, january.get("kindergartenIncome"));
+        assertEquals(0, ((Map<String, Object>) january.get("kindergartenBreakdown")).get("totalPayments"));
+
+        Map<String, Object> yearly = monthlyBalanceService.getYearlyBalance(YEAR);
+        Map<String, Object> monthlyBalances = (Map<String, Object>) yearly.get("monthlyBalances");
+        assertEquals(12, monthlyBalances.size());
+        for (int month = 1; month <= 12; month++) {
+            assertEquals(monthlyBalanceService.getMonthlyBalance(YEAR, month), monthlyBalances.get(String.valueOf(month)));
+        }
+        assertEquals(new BigDecimal("650.00"), yearly.get("totalYearlyIncome"));
+    }
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void testClosedMonthIsServedFromSnapshot() {
+        Student student = studentRepository.save(Student.builder()
+            .firstName("Snapshot")
+            .lastName("Test")
+            .birthDate(LocalDate.of(2016, 1, 1))
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .build());
+
+        savePayment(student, Payment.PaymentType.TUITION, "300.00", Payment.PaymentStatus.PAID, LocalDate.of(YEAR, 5, 1), LocalDate.of(YEAR, 5, 4));
+
+        Map<String, Object> closed = monthlyBalanceService.closeMonth(YEAR, 5, null);
+        assertEquals(new BigDecimal("300.00"), closed.get("kindergartenIncome"));
+        assertThrows(RuntimeException.class, () -> monthlyBalanceService.closeMonth(YEAR, 5, null));
+        // The snapshot reads back with the same types as the live balance, zero amounts included
+        assertEquals(closed, monthlyBalanceService.getMonthlyBalance(YEAR, 5));
+        assertInstanceOf(BigDecimal.class, monthlyBalanceService.getMonthlyBalance(YEAR, 5).get("extraCourseIncome"));
+
+        // A late correction does not change the closed month until it is recomputed
+        savePayment(student, Payment.PaymentType.OTHER, "40.00", Payment.PaymentStatus.PAID, LocalDate.of(YEAR, 5, 1), LocalDate.of(YEAR, 5, 10));
+
+        Map<String, Object> may = monthlyBalanceService.getMonthlyBalance(YEAR, 5);
+        assertEquals(new BigDecimal("300.00"), may.get("kindergartenIncome"));
+        Map<String, Object> breakdown = (Map<String, Object>) may.get("kindergartenBreakdown");
+        assertEquals(1, breakdown.get("totalPayments"));
+
+        Map<String, Object> yearly = monthlyBalanceService.getYearlyBalance(YEAR);
+        assertEquals(new BigDecimal("300.00"), yearly.get("totalYearlyIncome"));
+
+        monthlyBalanceService.recomputeMonth(YEAR, 5, null);
+        assertEquals(new BigDecimal("340.00"), monthlyBalanceService.getMonthlyBalance(YEAR, 5).get("kindergartenIncome"));
+
+        monthlyBalanceService.reopenMonth(YEAR, 5);
+        assertThrows(RuntimeException.class, () -> monthlyBalanceService.reopenMonth(YEAR, 5));
+
+        LocalDate now = LocalDate.now();
+        assertThrows(RuntimeException.class, () -> monthlyBalanceService.closeMonth(now.getYear(), now.getMonthValue(), null));
+    }
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void testSalariesFollowEffectiveDatedHistory() {
+        StaffDto staff = staffService.createStaff(StaffRequest.builder()
+            .firstName("Salma")
+            .lastName("Test")
+            .identityNumber("BAL-" + System.nanoTime())
+            .phoneNumber("0612345678")
+            .salary(new BigDecimal("2000.00"))
+            .type(Staff.StaffType.EDUCATRICE)
+            .active(true)
+            .build());
+
+        List<StaffSalaryHistory> history = salaryHistoryRepository.findAll().stream()
+            .filter(h -> h.getStaffId().equals(staff.getId()))
+            .toList();
+        assertEquals(1, history.size());
+        assertNull(history.get(0).getEffectiveTo());
+
+        // Backdate the hire and record an earlier, lower salary
+        StaffSalaryHistory current = history.get(0);
+        current.setEffectiveFrom(LocalDate.of(YEAR, 7, 1));
+        salaryHistoryRepository.save(current);
+        salaryHistoryRepository.save(StaffSalaryHistory.builder()
+            .staffId(staff.getId())
+            .staffType(Staff.StaffType.AIDE_EDUCATRICE)
+            .salary(new BigDecimal("1500.00"))
+            .effectiveFrom(LocalDate.of(YEAR, 3, 15))
+            .effectiveTo(LocalDate.of(YEAR, 7, 1))
+            .build());
+
+        assertEquals(BigDecimal.ZERO, monthlyBalanceService.getMonthlyBalance(YEAR, 2).get("totalSalaries"));
+        assertEquals(new BigDecimal("1500.00"), monthlyBalanceService.getMonthlyBalance(YEAR, 3).get("totalSalaries"));
+        assertEquals(new BigDecimal("2000.00"), monthlyBalanceService.getMonthlyBalance(YEAR, 7).get("totalSalaries"));
+
+        Map<String, Object> june = monthlyBalanceService.getMonthlyBalance(YEAR, 6);
+        Map<String, Object> salaryBreakdown = (Map<String, Object>) june.get("salaryBreakdown");
+        assertEquals(1, salaryBreakdown.get("totalStaff"));
+        assertEquals(new BigDecimal("1500.00"), ((Map<String, BigDecimal>) salaryBreakdown.get("byType")).get("AIDE_EDUCATRICE"));
+
+        // 1500 * 4 (Mar-Jun) + 2000 * 6 (Jul-Dec)
+        assertEquals(new BigDecimal("18000.00"), monthlyBalanceService.getYearlyBalance(YEAR).get("totalYearlySalaries"));
+
+        // Deactivation closes the open interval
+        StaffRequest deactivate = StaffRequest.builder()
+            .firstName(staff.getFirstName())
+            .lastName(staff.getLastName())
+            .identityNumber(staff.getIdentityNumber())
+            .phoneNumber(staff.getPhoneNumber())
+            .salary(staff.getSalary())
+            .type(staff.getType())
+            .active(false)
+            .build();
+        staffService.updateStaff(staff.getId(), deactivate);
+        assertTrue(salaryHistoryRepository.findFirstByStaffIdAndEffectiveToIsNull(staff.getId()).isEmpty());
+    }
+
+    private void savePayment(Student student, Payment.PaymentType type, String amount, Payment.PaymentStatus status,
+                             LocalDate dueDate, LocalDate paidDate) {
+        paymentRepository.save(Payment.builder()
+            .student(student)
+            .type(type)
+            .amount(new BigDecimal(amount))
+            .status(status)
+            .dueDate(dueDate)
+            .paidDate(paidDate)
+            .build());
+    }
+}
@@ -0,0 +1,93 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.config.NotificationCoalescingProperties;
+import com.linarqa.entity.Notification;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class NotificationCoalescerTest {
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    private NotificationCoalescingProperties properties;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    public void testBurstBeyondThresholdIsFoldedIntoOneDigest() {
+        Map<Notification.NotificationType, NotificationCoalescingProperties.Rule> types = properties.getTypes();
+        try {
+            NotificationCoalescingProperties.Rule rule = new NotificationCoalescingProperties.Rule();
+            rule.setWindowMs(1000);
+            rule.setThreshold(2);
+            rule.setMaxDelayMs(60000);
+            properties.setTypes(new HashMap<>(Map.of(Notification.NotificationType.GENERAL, rule)));
+
+            List<NotificationEvent> written = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                written.addAll(notificationCoalescer.offer(event(), i * 100L));
+            }
+            assertEquals(2, written.size());
+            assertFalse(written.get(0).isDigest());
+
+            // Still inside the sliding window
+            assertTrue(notificationCoalescer.drainDue(1500).isEmpty());
+
+            List<NotificationEvent> digests = notificationCoalescer.drainDue(2000);
+            assertEquals(1, digests.size());
+            assertTrue(digests.get(0).isDigest());
+            assertEquals(8, digests.get(0).getCount());
+
+            // A new burst starts once the previous one has gone quiet
+            assertEquals(1, notificationCoalescer.offer(event(), 5000).size());
+        } finally {
+            properties.setTypes(types);
+            notificationCoalescer.drainAll();
+        }
+    }
+
+    @Test
+    public void testDigestIsWrittenAsOneAggregateNotification() {
+        notificationService.dispatch(List.of(
+            NotificationEvent.digest(Notification.NotificationType.PAYMENT_CREATED, 42, null, System.currentTimeMillis())));
+
+        List<Notification> digests = notificationRepository.findByTypeOrderByCreatedAtDesc(Notification.NotificationType.PAYMENT_CREATED).stream()
+            .filter(notification -> notification.getAggregateCount() != null)
+            .toList();
+        try {
+            assertEquals(1, digests.size());
+            Notification digest = digests.get(0);
+            assertEquals(42, digest.getAggregateCount());
+            assertNotNull(digest.getAggregateSince());
+            assertEquals("PAYMENT", digest.getRelatedEntityType());
+            assertTrue(digest.getMessage().startsWith("42 "));
+        } finally {
+            notificationService.deleteForAllRecipients(digests.stream().map(Notification::getId).toList());
+        }
+    }
+
+    private NotificationEvent event() {
+        return new NotificationEvent(Notification.NotificationType.GENERAL, "Test", "اختبار", null, UUID.randomUUID(), null);
+    }
+}
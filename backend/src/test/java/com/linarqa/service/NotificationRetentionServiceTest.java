@@ -0,0 +1,91 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.config.NotificationRetentionProperties;
+import com.linarqa.entity.Notification;
+import com.linarqa.entity.NotificationReceipt;
+import com.linarqa.entity.User;
+import com.linarqa.repository.NotificationReceiptRepository;
+import com.linarqa.repository.NotificationRepository;
+import com.linarqa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class NotificationRetentionServiceTest {
+
+    @Autowired
+    private NotificationRetentionService notificationRetentionService;
+
+    @Autowired
+    private NotificationRetentionProperties properties;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReceiptRepository receiptRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testExpiredNotificationsArePurgedInChunksPerType() {
+        User user = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        List<UUID> generalIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            generalIds.add(saveNotification(user, Notification.NotificationType.GENERAL));
+        }
+        UUID alertId = saveNotification(user, Notification.NotificationType.SYSTEM_ALERT);
+
+        int defaultDays = properties.getDefaultDays();
+        Map<Notification.NotificationType, Integer> days = properties.getDays();
+        int chunkSize = properties.getChunkSize();
+        try {
+            // Only GENERAL expires; SYSTEM_ALERT is kept forever
+            properties.setDefaultDays(0);
+            properties.setDays(new HashMap<>(Map.of(Notification.NotificationType.GENERAL, 30)));
+            properties.setChunkSize(2);
+
+            Map<Notification.NotificationType, Integer> purged =
+                notificationRetentionService.purge(LocalDateTime.now().plusDays(31));
+
+            assertTrue(purged.get(Notification.NotificationType.GENERAL) >= generalIds.size());
+            assertFalse(purged.containsKey(Notification.NotificationType.SYSTEM_ALERT));
+            for (UUID id : generalIds) {
+                assertFalse(notificationRepository.existsById(id));
+            }
+            assertTrue(notificationRepository.existsById(alertId));
+        } finally {
+            properties.setDefaultDays(defaultDays);
+            properties.setDays(days);
+            properties.setChunkSize(chunkSize);
+            notificationService.deleteForAllRecipients(List.of(alertId));
+        }
+    }
+
+    private UUID saveNotification(User user, Notification.NotificationType type) {
+        Notification notification = notificationRepository.save(Notification.builder()
+            .title("Retention")
+            .message("Retention test")
+            .type(type)
+            .build());
+        receiptRepository.save(NotificationReceipt.builder().notification(notification).user(user).build());
+        return notification.getId();
+    }
+}
@@ -0,0 +1,317 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.NotificationDto;
+import com.linarqa.dto.NotificationFeedDto;
+import com.linarqa.entity.Notification;
+import com.linarqa.entity.NotificationReceipt;
+import com.linarqa.entity.Student;
+import com.linarqa.entity.User;
+import com.linarqa.event.NotificationEvent;
+import com.linarqa.event.NotificationsChangedEvent;
+import com.linarqa.repository.NotificationReceiptRepository;
+import com.linarqa.repository.NotificationRepository;
+import com.linarqa.repository.StudentRepository;
+import com.linarqa.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReceiptRepository receiptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Transactional
+    public void testNotificationIsFannedOutToEveryAdmin() {
+        List<User> admins = userRepository.findByRole(User.UserRole.OWNER);
+        assertFalse(admins.isEmpty());
+        User creator = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        UUID studentId = UUID.randomUUID();
+
+        notificationService.notifyStudentRegistered("Test Student", "طالب اختبار", studentId, creator.getId());
+
+        List<Notification> notifications = notificationRepository.findByRelatedEntityTypeAndRelatedEntityId("STUDENT", studentId);
+        assertEquals(1, notifications.size());
+        Notification notification = notifications.get(0);
+        assertEquals(Notification.NotificationType.STUDENT_REGISTERED, notification.getType());
+        assertEquals(creator.getId(), notification.getCreatedBy().getId());
+
+        List<NotificationReceipt> receipts = receiptRepository.findByNotificationId(notification.getId());
+        assertEquals(admins.size(), receipts.size());
+        for (NotificationReceipt receipt : receipts) {
+            assertEquals(User.UserRole.OWNER, receipt.getUser().getRole());
+            assertFalse(receipt.isRead());
+        }
+    }
+
+    @Test
+    public void testEventBatchIsWrittenForEveryAdmin() {
+        int adminCount = userRepository.findByRole(User.UserRole.OWNER).size();
+        UUID firstPaymentId = UUID.randomUUID();
+        UUID secondPaymentId = UUID.randomUUID();
+
+        int written = notificationService.dispatch(List.of(
+            new NotificationEvent(Notification.NotificationType.PAYMENT_CREATED, "Test Student", "طالب اختبار", "300.00", firstPaymentId, null),
+            new NotificationEvent(Notification.NotificationType.PAYMENT_MARKED_PAID, "Test Student", "طالب اختبار", "300.00", secondPaymentId, null)));
+
+        try {
+            assertEquals(adminCount * 2, written);
+            for (UUID paymentId : List.of(firstPaymentId, secondPaymentId)) {
+                List<Notification> notifications = notificationRepository.findByRelatedEntityTypeAndRelatedEntityId("PAYMENT", paymentId);
+                assertEquals(1, notifications.size());
+                assertEquals(adminCount, receiptRepository.findByNotificationId(notifications.get(0).getId()).size());
+            }
+        } finally {
+            deleteRelated("PAYMENT", firstPaymentId);
+            deleteRelated("PAYMENT", secondPaymentId);
+        }
+    }
+
+    @Test
+    public void testNotificationsAreDispatchedOnlyAfterCommit() throws InterruptedException {
+        User creator = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(creator.getEmail(), null, List.of()));
+        int adminCount = userRepository.findByRole(User.UserRole.OWNER).size();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Student rolledBack = transactionTemplate.execute(status -> {
+            Student student = studentService.createStudent(buildStudent("Rolled"));
+            status.setRollbackOnly();
+            return student;
+        });
+        Student committed = transactionTemplate.execute(status -> studentService.createStudent(buildStudent("Committed")));
+
+        try {
+            List<Notification> notifications = List.of();
+            for (int attempt = 0; attempt < 50 && notifications.isEmpty(); attempt++) {
+                Thread.sleep(100);
+                notifications = notificationRepository.findByRelatedEntityTypeAndRelatedEntityId("STUDENT", committed.getId());
+            }
+            assertEquals(1, notifications.size());
+            assertEquals(adminCount, receiptRepository.findByNotificationId(notifications.get(0).getId()).size());
+            assertTrue(notificationRepository.findByRelatedEntityTypeAndRelatedEntityId("STUDENT", rolledBack.getId()).isEmpty());
+        } finally {
+            deleteRelated("STUDENT", committed.getId());
+            studentRepository.deleteById(committed.getId());
+        }
+    }
+
+    @Test
+    public void testUnreadCountersFollowCommittedChanges() {
+        notificationCounterService.reconcile();
+        User admin = userRepository.findByRole(User.UserRole.OWNER).get(0);
+        long unreadBefore = notificationService.getUnreadNotificationCount(admin.getId());
+        long totalUnreadBefore = notificationService.getTotalUnreadNotificationCount();
+        long totalBefore = notificationService.getTotalNotificationCount();
+        UUID paymentId = UUID.randomUUID();
+
+        int written = notificationService.dispatch(List.of(
+            new NotificationEvent(Notification.NotificationType.PAYMENT_CREATED, "Test Student", "طالب اختبار", "300.00", paymentId, null)));
+
+        try {
+            assertEquals(unreadBefore + 1, notificationService.getUnreadNotificationCount(admin.getId()));
+            assertEquals(totalUnreadBefore + written, notificationService.getTotalUnreadNotificationCount());
+            assertEquals(totalBefore + written, notificationService.getTotalNotificationCount());
+
+            Notification notification = notificationRepository.findByRelatedEntityTypeAndRelatedEntityId("PAYMENT", paymentId).get(0);
+            notificationService.markAsRead(notification.getId(), admin.getId());
+            assertEquals(unreadBefore, notificationService.getUnreadNotificationCount(admin.getId()));
+
+            notificationCounterService.reconcile();
+            assertEquals(unreadBefore, notificationService.getUnreadNotificationCount(admin.getId()));
+            assertEquals(totalBefore + written, notificationService.getTotalNotificationCount());
+        } finally {
+            deleteRelated("PAYMENT", paymentId);
+            notificationCounterService.reconcile();
+        }
+    }
+
+    @Test
+    public void testReconcileKeepsChangesCommittedWhileCounting() {
+        UUID userId = UUID.randomUUID();
+        NotificationReceiptRepository repository = (NotificationReceiptRepository)
+            ReflectionTestUtils.getField(notificationCounterService, "receiptRepository");
+        // A change commits after the grouped COUNT has read the table, so the COUNT misses it
+        NotificationReceiptRepository committingDuringCount = (NotificationReceiptRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {NotificationReceiptRepository.class},
+            (proxy, method, args) -> {
+                Object result = method.invoke(repository, args);
+                if (method.getName().equals("countUnreadGroupedByUser")) {
+                    notificationCounterService.onNotificationsChanged(
+                        new NotificationsChangedEvent(Map.of(), Map.of(userId, 2L), 2));
+                }
+                return result;
+            });
+
+        notificationCounterService.reconcile();
+        long totalBefore = notificationService.getTotalNotificationCount();
+        ReflectionTestUtils.setField(notificationCounterService, "receiptRepository", committingDuringCount);
+        try {
+            notificationCounterService.reconcile();
+            assertEquals(2, notificationService.getUnreadNotificationCount(userId));
+            assertEquals(totalBefore + 2, notificationService.getTotalNotificationCount());
+        } finally {
+            ReflectionTestUtils.setField(notificationCounterService, "receiptRepository", repository);
+            notificationCounterService.reconcile();
+        }
+        assertEquals(0, notificationService.getUnreadNotificationCount(userId));
+    }
+
+    @Test
+    @Transactional
+    public void testBulkMarkAllAsReadAndDelete() {
+        User user = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        notificationService.markAllAsRead(user.getId());
+        List<UUID> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Notification notification = notificationRepository.save(Notification.builder()
+                .title("Bulk")
+                .message("Bulk " + i)
+                .type(Notification.NotificationType.GENERAL)
+                .build());
+            receiptRepository.save(NotificationReceipt.builder().notification(notification).user(user).build());
+            ids.add(notification.getId());
+        }
+
+        assertEquals(3, notificationService.markAllAsRead(user.getId()));
+        assertEquals(0, notificationService.markAllAsRead(user.getId()));
+        NotificationReceipt read = receiptRepository.findByNotificationIdAndUserId(ids.get(0), user.getId()).orElseThrow();
+        assertTrue(read.isRead());
+        assertNotNull(read.getReadAt());
+
+        assertEquals(2, notificationService.deleteMultipleNotifications(List.of(ids.get(0), ids.get(1), ids.get(1)), user.getId()));
+        assertFalse(notificationRepository.existsById(ids.get(0)));
+        assertTrue(receiptRepository.findByNotificationId(ids.get(0)).isEmpty());
+        assertTrue(notificationRepository.existsById(ids.get(2)));
+    }
+
+    @Test
+    @Transactional
+    public void testDeleteOnlyRemovesTheCallersReceipt() {
+        List<User> admins = userRepository.findByRole(User.UserRole.OWNER);
+        User caller = admins.get(0);
+        User other = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        Notification notification = notificationRepository.save(Notification.builder()
+            .title("Shared")
+            .message("Shared with two recipients")
+            .type(Notification.NotificationType.GENERAL)
+            .build());
+        receiptRepository.save(NotificationReceipt.builder().notification(notification).user(caller).build());
+        receiptRepository.save(NotificationReceipt.builder().notification(notification).user(other).build());
+
+        notificationService.deleteNotification(notification.getId(), caller.getId());
+        assertTrue(receiptRepository.findByNotificationIdAndUserId(notification.getId(), caller.getId()).isEmpty());
+        assertTrue(receiptRepository.findByNotificationIdAndUserId(notification.getId(), other.getId()).isPresent());
+        assertTrue(notificationRepository.existsById(notification.getId()));
+        assertThrows(RuntimeException.class, () -> notificationService.deleteNotification(notification.getId(), caller.getId()));
+
+        // The last recipient's delete removes the content too
+        assertEquals(1, notificationService.deleteMultipleNotifications(List.of(notification.getId()), other.getId()));
+        assertFalse(notificationRepository.existsById(notification.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void testKeysetFeedPagesWithoutGapsOrDuplicates() {
+        User user = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        java.util.Set<UUID> created = new java.util.HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            Notification notification = notificationRepository.save(Notification.builder()
+                .title("Feed")
+                .message("Feed " + i)
+                .type(Notification.NotificationType.GENERAL)
+                .build());
+            receiptRepository.save(NotificationReceipt.builder().notification(notification).user(user).build());
+            created.add(notification.getId());
+        }
+        // Read back what the database stored, as a real request would
+        entityManager.flush();
+        entityManager.clear();
+
+        List<NotificationDto> seen = new java.util.ArrayList<>();
+        String cursor = null;
+        NotificationFeedDto page;
+        do {
+            page = notificationService.getNotificationFeed(user.getId(), cursor, 2);
+            assertTrue(page.getNotifications().size() <= 2);
+            seen.addAll(page.getNotifications());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        List<UUID> ids = seen.stream().map(NotificationDto::getId).toList();
+        assertEquals(ids.size(), new java.util.HashSet<>(ids).size());
+        assertTrue(ids.containsAll(created));
+        assertNull(page.getNextCursor());
+        assertThrows(RuntimeException.class, () -> notificationService.getNotificationFeed(user.getId(), "not-a-cursor", 2));
+    }
+
+    private void deleteRelated(String relatedEntityType, UUID relatedEntityId) {
+        notificationService.deleteForAllRecipients(
+            notificationRepository.findByRelatedEntityTypeAndRelatedEntityId(relatedEntityType, relatedEntityId).stream()
+                .map(Notification::getId)
+                .toList());
+    }
+
+    private Student buildStudent(String firstName) {
+        return Student.builder()
+            .firstName(firstName)
+            .lastName("Student")
+            .birthDate(LocalDate.of(2020, 1, 1))
+            .studentType(Student.StudentType.KINDERGARTEN)
+            .guardianName("Guardian")
+            .guardianPhone("0600000000")
+            .status(Student.StudentStatus.ACTIVE)
+            .build();
+    }
+}
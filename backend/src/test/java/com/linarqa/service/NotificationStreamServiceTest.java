@@ -0,0 +1,182 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.NotificationDto;
+import com.linarqa.entity.Notification;
+import com.linarqa.entity.User;
+import com.linarqa.event.NotificationsChangedEvent;
+import com.linarqa.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class NotificationStreamServiceTest {
+
+    private static final Pattern NOTIFICATION_ID = Pattern.compile("id:(\\d+)\nevent:notification\n");
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Object streamExecutor;
+
+    /**
+     * Send on the calling thread: MockHttpServletResponse is not safe to write from the stream
+     * executor while the request thread is still leaving the filter chain
+     */
+    @BeforeEach
+    public void sendSynchronously() {
+        streamExecutor = ReflectionTestUtils.getField(notificationStreamService, "streamExecutor");
+        ReflectionTestUtils.setField(notificationStreamService, "streamExecutor", new SyncTaskExecutor());
+    }
+
+    @AfterEach
+    public void closeStreams() {
+        notificationStreamService.shutdown();
+        ReflectionTestUtils.setField(notificationStreamService, "streamExecutor", streamExecutor);
+    }
+
+    @Test
+    public void testReconnectReplaysNotificationsAfterLastEventId() throws Exception {
+        User admin = userRepository.findByRole(User.UserRole.OWNER).get(0);
+        String token = refreshTokenService.issue(admin).getToken();
+        String first = "Replay first " + UUID.randomUUID();
+        String second = "Replay second " + UUID.randomUUID();
+
+        MvcResult live = openStream(token, null);
+        publish(admin.getId(), first);
+        publish(admin.getId(), second);
+        String liveEvents = streamContent(live, second);
+        List<String> ids = notificationIds(liveEvents);
+        assertEquals(2, ids.size());
+
+        MvcResult reconnected = openStream(token, ids.get(0));
+        String replayed = streamContent(reconnected, second);
+        assertFalse(replayed.contains(first));
+        assertFalse(replayed.contains("event:resync"));
+        assertEquals(List.of(ids.get(1)), notificationIds(replayed));
+    }
+
+    @Test
+    public void testUnknownLastEventIdAsksClientToResync() throws Exception {
+        User admin = userRepository.findByRole(User.UserRole.OWNER).get(0);
+        String token = refreshTokenService.issue(admin).getToken();
+
+        // An id from before a restart or already evicted from the replay buffer
+        String evicted = streamContent(openStream(token, "1"), "event:resync");
+        assertTrue(evicted.contains("history-unavailable"));
+        assertTrue(evicted.contains("event:unread-count"));
+
+        String invalid = streamContent(openStream(token, "not-a-number"), "event:resync");
+        assertTrue(invalid.contains("invalid-last-event-id"));
+    }
+
+    @Test
+    public void testTokenInQueryStringIsNotAccepted() throws Exception {
+        User admin = userRepository.findByRole(User.UserRole.OWNER).get(0);
+        String token = refreshTokenService.issue(admin).getToken();
+
+        mockMvc.perform(get("/api/notifications/stream").param("access_token", token))
+            .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    public void testSlowConsumerIsDisconnected() {
+        Object bufferSize = ReflectionTestUtils.getField(notificationStreamService, "connectionBufferSize");
+        // Flushes never run, so events pile up in the connection's outbox
+        ReflectionTestUtils.setField(notificationStreamService, "streamExecutor", (TaskExecutor) task -> { });
+        ReflectionTestUtils.setField(notificationStreamService, "connectionBufferSize", 2);
+        double disconnectsBefore = meterRegistry.counter("notifications.stream.disconnects", "reason", "slow-consumer").count();
+        try {
+            UUID userId = UUID.randomUUID();
+            int connectionsBefore = notificationStreamService.getConnectionCount();
+            notificationStreamService.subscribe(userId, null);
+            assertEquals(connectionsBefore + 1, notificationStreamService.getConnectionCount());
+
+            publish(userId, "Slow first");
+            publish(userId, "Slow second");
+
+            assertEquals(connectionsBefore, notificationStreamService.getConnectionCount());
+            assertTrue(meterRegistry.counter("notifications.stream.disconnects", "reason", "slow-consumer").count() > disconnectsBefore);
+        } finally {
+            ReflectionTestUtils.setField(notificationStreamService, "connectionBufferSize", bufferSize);
+        }
+    }
+
+    private MvcResult openStream(String token, String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/notifications/stream")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private void publish(UUID userId, String title) {
+        NotificationDto notification = NotificationDto.builder()
+            .id(UUID.randomUUID())
+            .title(title)
+            .message(title)
+            .type(Notification.NotificationType.GENERAL)
+            .status(Notification.NotificationStatus.UNREAD)
+            .createdAt(LocalDateTime.now())
+            .build();
+        notificationStreamService.onNotificationsChanged(NotificationsChangedEvent.created(Map.of(userId, List.of(notification))));
+    }
+
+    private String streamContent(MvcResult result, String expected) throws Exception {
+        String content = result.getResponse().getContentAsString();
+        assertTrue(content.contains(expected), "stream was: " + content);
+        return content;
+    }
+
+    private List<String> notificationIds(String events) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = NOTIFICATION_ID.matcher(events);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+}
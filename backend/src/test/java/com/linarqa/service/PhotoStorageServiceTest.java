@@ -0,0 +1,124 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.PhotoBlob;
+import com.linarqa.repository.PhotoBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class PhotoStorageServiceTest {
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    public void testIdenticalUploadsShareOneReferenceCountedBlob() throws Exception {
+        byte[] content = ("photo-" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+        String first = photoStorageService.store(new ByteArrayInputStream(content), ".JPG");
+        String second = photoStorageService.store(new ByteArrayInputStream(content), ".jpg");
+        assertEquals(first, second);
+        assertTrue(first.matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg"));
+        assertTrue(first.startsWith(first.substring(6, 8) + "/" + first.substring(8, 10) + "/"));
+
+        Path file = photoStorageService.resolve(first);
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertEquals(2, photoBlobRepository.findById(first).map(PhotoBlob::getRefCount).orElse(0));
+
+        String url = "http://localhost:8080/api/uploads/photos/" + first;
+        assertFalse(photoStorageService.release(url));
+        assertTrue(Files.exists(file));
+
+        assertTrue(photoStorageService.release("/uploads/photos/" + first));
+        assertFalse(Files.exists(file));
+        assertTrue(photoBlobRepository.findById(first).isEmpty());
+    }
+
+    @Test
+    public void testReassigningPhotoUrlsKeepsReferenceCounts() throws Exception {
+        String first = photoStorageService.store(new ByteArrayInputStream(("first-" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8)), ".jpg");
+        String second = photoStorageService.store(new ByteArrayInputStream(("second-" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8)), ".jpg");
+        String firstUrl = photoStorageService.publicUrl(first);
+        String secondUrl = photoStorageService.publicUrl(second);
+
+        // Re-submitting the current URL must not release the blob the row still points at
+        fileUploadService.reassignFile(firstUrl, firstUrl);
+        assertEquals(1, photoBlobRepository.findById(first).map(PhotoBlob::getRefCount).orElse(0));
+        assertTrue(Files.exists(photoStorageService.resolve(first)));
+
+        // Pasting another student's URL shares its blob and releases the old one
+        fileUploadService.reassignFile(firstUrl, secondUrl);
+        assertEquals(2, photoBlobRepository.findById(second).map(PhotoBlob::getRefCount).orElse(0));
+        assertFalse(Files.exists(photoStorageService.resolve(first)));
+
+        assertFalse(photoStorageService.acquire("https://example.com/photo.jpg"));
+        assertFalse(photoStorageService.release(secondUrl));
+        assertTrue(photoStorageService.release(secondUrl));
+    }
+
+    @Test
+    public void testStorageKeysFromUrls() {
+        String hash = "ab".repeat(32);
+        assertEquals("ab/ab/" + hash + ".png", PhotoStorageService.keyFromUrl("/api/uploads/photos/ab/ab/" + hash + ".png"));
+        assertNull(PhotoStorageService.keyFromUrl("/uploads/photos/../../etc/passwd"));
+        assertNull(PhotoStorageService.keyFromUrl("/uploads/extra-students/photo.jpg"));
+        assertNull(PhotoStorageService.keyFromUrl(null));
+    }
+
+    @Test
+    public void testStreamedUploadIsCutOffPastTheLimit() throws Exception {
+        long originalLimit = photoStorageService.getMaxPhotoBytes();
+        ReflectionTestUtils.setField(photoStorageService, "maxPhotoBytes", 100_000L);
+        try {
+            byte[] fits = new byte[100_000];
+            fits[99_999] = 7;
+            Path stored = uploadDir.resolve("fits.jpg");
+            assertEquals(100_000, photoStorageService.writeLimited(new ByteArrayInputStream(fits), stored));
+            assertArrayEquals(fits, Files.readAllBytes(stored));
+
+            assertThrows(RuntimeException.class,
+                () -> photoStorageService.store(new ByteArrayInputStream(new byte[100_001]), ".jpg"));
+            assertThrows(RuntimeException.class,
+                () -> photoStorageService.store(new ByteArrayInputStream(new byte[0]), ".jpg"));
+
+            // A rejected upload leaves no temporary file behind
+            try (Stream<Path> files = Files.list(photoStorageService.getPhotoRoot())) {
+                assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+            }
+        } finally {
+            ReflectionTestUtils.setField(photoStorageService, "maxPhotoBytes", originalLimit);
+        }
+    }
+
+    @Test
+    public void testExtensionForContentType() {
+        assertEquals(".png", FileUploadService.extensionFor("image/png"));
+        assertEquals(".jpg", FileUploadService.extensionFor("image/jpeg"));
+        assertEquals(".jpg", FileUploadService.extensionFor("application/octet-stream"));
+        assertEquals(".jpg", PhotoStorageService.normalizeExtension(".exe"));
+    }
+}
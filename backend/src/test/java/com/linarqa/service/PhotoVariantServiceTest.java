@@ -0,0 +1,122 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.util.PhotoVariants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class PhotoVariantServiceTest {
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    public void testVariantsAreWrittenNextToOriginalAndDeletedWithIt() throws Exception {
+        Path original = uploadDir.resolve("photo.png");
+        ImageIO.write(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        assertTrue(photoVariantService.generate(original));
+
+        for (Integer size : PhotoVariants.SIZES) {
+            Path variant = uploadDir.resolve("photo_" + size + ".jpg");
+            BufferedImage image = ImageIO.read(variant.toFile());
+            assertEquals((int) size, image.getWidth());
+            assertEquals(Math.round(size * 800 / 1200.0), image.getHeight());
+        }
+
+        photoVariantService.deleteVariants(original);
+        for (Integer size : PhotoVariants.SIZES) {
+            assertFalse(Files.exists(PhotoVariants.variantPath(original, size)));
+        }
+    }
+
+    @Test
+    public void testSmallAndInvalidImages() throws Exception {
+        Path small = uploadDir.resolve("small.jpg");
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), "jpeg", small.toFile());
+        assertTrue(photoVariantService.generate(small));
+        // Never upscaled
+        assertEquals(100, ImageIO.read(uploadDir.resolve("small_480.jpg").toFile()).getWidth());
+        assertEquals(64, ImageIO.read(uploadDir.resolve("small_64.jpg").toFile()).getWidth());
+
+        Path notAnImage = uploadDir.resolve("notes.jpg");
+        Files.writeString(notAnImage, "not an image");
+        assertFalse(photoVariantService.generate(notAnImage));
+    }
+
+    @Test
+    public void testCameraOrientationIsAppliedBeforeResizing() throws Exception {
+        // Stored landscape, red on the left and blue on the right, tagged "rotate 90 clockwise"
+        BufferedImage sensor = new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sensor.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 150, 100);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(150, 0, 150, 100);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(sensor, "jpeg", jpeg);
+        Path original = uploadDir.resolve("portrait.jpg");
+        Files.write(original, withExifOrientation(jpeg.toByteArray(), 6));
+
+        assertTrue(photoVariantService.generate(original));
+
+        BufferedImage upright = ImageIO.read(uploadDir.resolve("portrait_480.jpg").toFile());
+        assertEquals(100, upright.getWidth());
+        assertEquals(300, upright.getHeight());
+        // The left edge of the stored image is the top of the upright one
+        assertTrue(new Color(upright.getRGB(50, 20)).getRed() > 200);
+        assertTrue(new Color(upright.getRGB(50, 280)).getBlue() > 200);
+        BufferedImage avatar = ImageIO.read(uploadDir.resolve("portrait_64.jpg").toFile());
+        assertEquals(64, avatar.getHeight());
+        assertTrue(avatar.getWidth() < avatar.getHeight());
+    }
+
+    @Test
+    public void testVariantUrls() {
+        Map<Integer, String> urls = PhotoVariants.urlsFor("/api/uploads/students/abc.png");
+        assertEquals("/api/uploads/students/abc_64.jpg", urls.get(64));
+        assertEquals("/api/uploads/students/abc_480.jpg", urls.get(480));
+        assertTrue(PhotoVariants.urlsFor("https://images.example.com/photo.jpg").isEmpty());
+        assertTrue(PhotoVariants.urlsFor(null).isEmpty());
+    }
+
+    /**
+     * Insert a big-endian EXIF APP1 segment holding only the Orientation tag after the SOI marker
+     */
+    private byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer app1 = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+        app1.putShort((short) 0xFFE1).putShort((short) (app1.capacity() - 2));
+        app1.put(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+        app1.put(new byte[] {'M', 'M'}).putShort((short) 42).putInt(8);
+        app1.putShort((short) 1);
+        app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        app1.putInt(0);
+
+        byte[] tagged = new byte[jpeg.length + app1.capacity()];
+        System.arraycopy(jpeg, 0, tagged, 0, 2);
+        System.arraycopy(app1.array(), 0, tagged, 2, app1.capacity());
+        System.arraycopy(jpeg, 2, tagged, 2 + app1.capacity(), jpeg.length - 2);
+        return tagged;
+    }
+}
@@ -0,0 +1,48 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.User;
+import com.linarqa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class PrincipalCacheServiceTest {
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testCachedPrincipalIsEvictedWhenUserChanges() {
+        User staff = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        String originalName = staff.getFullName();
+
+        User first = principalCacheService.getActiveUser(staff.getEmail()).orElseThrow();
+        assertSame(first, principalCacheService.getActiveUser(staff.getEmail()).orElseThrow());
+
+        try {
+            staff.setFullName(originalName + " Updated");
+            staff = userRepository.save(staff);
+            User reloaded = principalCacheService.getActiveUser(staff.getEmail()).orElseThrow();
+            assertNotSame(first, reloaded);
+            assertEquals(originalName + " Updated", reloaded.getFullName());
+
+            staff.setActive(false);
+            staff = userRepository.save(staff);
+            assertTrue(principalCacheService.getActiveUser(staff.getEmail()).isEmpty());
+        } finally {
+            staff.setFullName(originalName);
+            staff.setActive(true);
+            userRepository.save(staff);
+        }
+        assertTrue(principalCacheService.getActiveUser(staff.getEmail()).isPresent());
+    }
+}
@@ -0,0 +1,52 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class RateLimitServiceTest {
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Test
+    public void testEndpointClassesAreResolvedInOrder() {
+        assertEquals("login", rateLimitService.resolve("/api/auth/login").getName());
+        assertEquals("refresh", rateLimitService.resolve("/api/auth/refresh").getName());
+        assertEquals(0, rateLimitService.resolve("/api/auth/refresh").getMaxConcurrent());
+        assertEquals("heavy", rateLimitService.resolve("/api/monthly-balance/year/2025").getName());
+        assertEquals("default", rateLimitService.resolve("/api/payments/overdue").getName());
+        assertNull(rateLimitService.resolve("/uploads/photo.jpg"));
+    }
+
+    @Test
+    public void testBucketRejectsBurstBeyondCapacityPerClient() {
+        RateLimitProperties.EndpointClass endpointClass = new RateLimitProperties.EndpointClass();
+        endpointClass.setName("test-" + System.nanoTime());
+        endpointClass.setPatterns(List.of("/test/**"));
+        endpointClass.setCapacity(2);
+        endpointClass.setRefillPerMinute(1);
+        endpointClass.setMaxConcurrent(1);
+
+        assertEquals(0, rateLimitService.tryConsume(endpointClass, "ip:10.0.0.1"));
+        assertEquals(0, rateLimitService.tryConsume(endpointClass, "ip:10.0.0.1"));
+        long retryAfter = rateLimitService.tryConsume(endpointClass, "ip:10.0.0.1");
+        assertTrue(retryAfter > 0 && retryAfter <= 60);
+        assertEquals(0, rateLimitService.tryConsume(endpointClass, "ip:10.0.0.2"));
+
+        assertTrue(rateLimitService.tryEnter(endpointClass));
+        assertFalse(rateLimitService.tryEnter(endpointClass));
+        rateLimitService.release(endpointClass);
+        assertTrue(rateLimitService.tryEnter(endpointClass));
+        rateLimitService.release(endpointClass);
+    }
+}
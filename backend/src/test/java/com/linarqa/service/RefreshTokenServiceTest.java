@@ -0,0 +1,46 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.LoginResponse;
+import com.linarqa.entity.User;
+import com.linarqa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testRefreshTokenRotatesAndReuseRevokesTheSession() {
+        User user = userRepository.findByRole(User.UserRole.STAFF).get(0);
+        LoginResponse login = refreshTokenService.issue(user);
+        String sessionId = jwtService.validate(login.getToken()).get(JwtService.SESSION_CLAIM, String.class);
+        assertNotNull(login.getRefreshToken());
+
+        LoginResponse refreshed = refreshTokenService.rotate(login.getRefreshToken());
+        assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+        assertEquals(user.getEmail(), jwtService.extractEmail(refreshed.getToken()));
+        assertEquals(sessionId, jwtService.validate(refreshed.getToken()).get(JwtService.SESSION_CLAIM, String.class));
+        assertFalse(refreshTokenService.isSessionRevoked(sessionId));
+
+        // Replaying the rotated token ends the session, including the token issued after it
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(login.getRefreshToken()));
+        assertTrue(refreshTokenService.isSessionRevoked(sessionId));
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(refreshed.getRefreshToken()));
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate("unknown-token"));
+    }
+}
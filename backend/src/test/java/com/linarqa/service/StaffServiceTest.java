@@ -0,0 +1,66 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.dto.StaffDto;
+import com.linarqa.dto.StaffRequest;
+import com.linarqa.entity.Staff;
+import com.linarqa.entity.StaffSalaryHistory;
+import com.linarqa.repository.StaffSalaryHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class StaffServiceTest {
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private StaffSalaryHistoryRepository salaryHistoryRepository;
+
+    @Test
+    @Transactional
+    public void testSalaryHistoryIgnoresScaleOnlyChanges() {
+        StaffDto staff = staffService.createStaff(request("3000"));
+        assertEquals(1, salaryHistoryRepository.countByStaffId(staff.getId()));
+        // Back-date the opening interval, otherwise a same-day change replaces it instead of adding a row
+        StaffSalaryHistory opening = salaryHistoryRepository.findFirstByStaffIdAndEffectiveToIsNull(staff.getId()).orElseThrow();
+        opening.setEffectiveFrom(LocalDate.now().minusMonths(1));
+        salaryHistoryRepository.save(opening);
+
+        // Same salary with a different scale, as the form sends it back
+        staffService.updateStaff(staff.getId(), request("3000.00", staff));
+        assertEquals(1, salaryHistoryRepository.countByStaffId(staff.getId()));
+
+        staffService.updateStaff(staff.getId(), request("3200.00", staff));
+        assertEquals(2, salaryHistoryRepository.countByStaffId(staff.getId()));
+    }
+
+    private StaffRequest request(String salary) {
+        return StaffRequest.builder()
+            .firstName("Salary")
+            .lastName("Scale")
+            .identityNumber("ID-" + UUID.randomUUID().toString().substring(0, 8))
+            .phoneNumber("0612345678")
+            .salary(new BigDecimal(salary))
+            .type(Staff.StaffType.ASSISTANT)
+            .active(true)
+            .build();
+    }
+
+    private StaffRequest request(String salary, StaffDto existing) {
+        StaffRequest request = request(salary);
+        request.setIdentityNumber(existing.getIdentityNumber());
+        return request;
+    }
+}
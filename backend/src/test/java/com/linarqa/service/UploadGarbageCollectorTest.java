@@ -0,0 +1,94 @@
+package com.linarqa.service;
+
+import com.linarqa.LinarqaApplication;
+import com.linarqa.entity.Student;
+import com.linarqa.repository.PhotoBlobRepository;
+import com.linarqa.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LinarqaApplication.class)
+@ActiveProfiles("test")
+public class UploadGarbageCollectorTest {
+
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
+
+    @Autowired
+    private PhotoStorageService photoStorageService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Test
+    public void testOnlyOldUnreferencedUploadsAreCollected() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        String referencedKey = storeOld("referenced-" + UUID.randomUUID(), old);
+        String orphanKey = storeOld("orphan-" + UUID.randomUUID(), old);
+        String freshKey = photoStorageService.store(bytes("fresh-" + UUID.randomUUID()), ".jpg");
+
+        Path orphanVariant = Files.writeString(photoStorageService.resolve(orphanKey).resolveSibling(
+            orphanKey.substring(6, orphanKey.lastIndexOf('.')) + "_64.jpg"), "variant");
+        Files.setLastModifiedTime(orphanVariant, FileTime.from(old));
+        Path legacyDir = Files.createDirectories(photoStorageService.getUploadRoot().resolve("students"));
+        Path legacyOrphan = Files.writeString(legacyDir.resolve(UUID.randomUUID() + ".jpg"), "legacy");
+        Files.setLastModifiedTime(legacyOrphan, FileTime.from(old));
+
+        Student student = studentRepository.save(Student.builder()
+            .firstName("Collector")
+            .lastName("Test")
+            .birthDate(LocalDate.of(2018, 1, 1))
+            .studentType(Student.StudentType.KINDERGARTEN)
+            .guardianName("Test Guardian")
+            .guardianPhone("123456789")
+            .status(Student.StudentStatus.ACTIVE)
+            .photoUrl(photoStorageService.publicUrl(referencedKey))
+            .build());
+
+        try {
+            UploadGarbageCollector.CollectionResult result = uploadGarbageCollector.collect(Instant.now());
+
+            // The variant may be removed along with its original, so it is not always counted as a file
+            assertTrue(result.files() >= 2);
+            assertTrue(result.bytes() >= "variant".length() + "legacy".length());
+            assertTrue(Files.exists(photoStorageService.resolve(referencedKey)));
+            assertTrue(Files.exists(photoStorageService.resolve(freshKey)));
+            assertFalse(Files.exists(photoStorageService.resolve(orphanKey)));
+            assertFalse(Files.exists(orphanVariant));
+            assertFalse(Files.exists(legacyOrphan));
+            assertTrue(photoBlobRepository.findById(orphanKey).isEmpty());
+        } finally {
+            studentRepository.deleteById(student.getId());
+            photoStorageService.release(photoStorageService.publicUrl(referencedKey));
+            photoStorageService.release(photoStorageService.publicUrl(freshKey));
+            Files.deleteIfExists(legacyOrphan);
+        }
+    }
+
+    private String storeOld(String content, Instant modified) throws Exception {
+        String storageKey = photoStorageService.store(bytes(content), ".jpg");
+        Files.setLastModifiedTime(photoStorageService.resolve(storageKey), FileTime.from(modified));
+        return storageKey;
+    }
+
+    private ByteArrayInputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
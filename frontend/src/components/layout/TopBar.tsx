@@ -24,12 +24,21 @@ const TopBar: React.FC = () => {
     logout();
   };
 
-  const unreadCount = notifications.filter(n => !n.isRead).length;
+  // The stream pushes the server's count; until it arrives, count the loaded list
+  const [streamUnreadCount, setStreamUnreadCount] = useState<number | null>(null);
+  const unreadCount = streamUnreadCount ?? notifications.filter(n => !n.isRead).length;
 
-  // Fetch notifications on component mount
+  // Load unread notifications once, then keep them current from the notification stream
   useEffect(() => {
     fetchNotifications();
-  }, []);
+    if (user?.role !== 'OWNER') return;
+    return notificationService.subscribe({
+      onNotification: (notification) =>
+        setNotifications(prev => prev.some(n => n.id === notification.id) ? prev : [notification, ...prev]),
+      onUnreadCount: setStreamUnreadCount,
+      onResync: fetchNotifications,
+    });
+  }, [user?.role]);
 
   const fetchNotifications = async () => {
     try {
@@ -39,9 +48,9 @@ const TopBar: React.FC = () => {
       console.log('🔍 TopBar fetchNotifications - User:', user);
       console.log('🔍 TopBar fetchNotifications - JWT Token:', localStorage.getItem('jwt-token') ? 'Present' : 'Missing');
       
-      // Use the new simple API endpoint
-      console.log('🔔 Fetching notifications using new API...');
-      const unreadNotifications = await notificationService.getAllUnreadNotifications();
+      // Same per-user unread list the notification stream keeps up to date
+      console.log('🔔 Fetching unread notifications...');
+      const unreadNotifications = await notificationService.getUnreadNotifications();
       console.log('✅ Notifications fetched successfully:', unreadNotifications.length);
       setNotifications(unreadNotifications);
     } catch (error) {
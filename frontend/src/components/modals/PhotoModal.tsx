@@ -1,6 +1,7 @@
 import React, { useState, useRef, useCallback } from 'react';
 import { X, Camera, Link, Upload, FileImage, Video, RotateCcw } from 'lucide-react';
 import { useToast } from '@/hooks/use-toast';
+import { resolveUploadUrl } from '@/lib/api';
 
 interface PhotoModalProps {
   isOpen: boolean;
@@ -387,7 +388,7 @@ const PhotoModal: React.FC<PhotoModalProps> = ({
                 <h4 className="text-sm font-medium mb-2" style={{ color: 'var(--mode-text)' }}>Aperçu</h4>
                 <div className="flex justify-center">
                   <img
-                    src={photoUrl}
+                    src={resolveUploadUrl(photoUrl)}
                     alt="Aperçu"
                     className="w-32 h-32 rounded-lg object-cover border-2 shadow-sm"
                     style={{ borderColor: 'var(--mode-border)' }}
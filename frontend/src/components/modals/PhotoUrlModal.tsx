@@ -1,6 +1,7 @@
 import React, { useState } from 'react';
 import { X, Camera, Link, Upload } from 'lucide-react';
 import { useToast } from '@/hooks/use-toast';
+import { resolveUploadUrl } from '@/lib/api';
 
 interface PhotoUrlModalProps {
   isOpen: boolean;
@@ -123,7 +124,7 @@ const PhotoUrlModal: React.FC<PhotoUrlModalProps> = ({
               <h4 className="text-sm font-medium text-gray-700 mb-2">Aperçu</h4>
               <div className="flex justify-center">
                 <img
-                  src={photoUrl}
+                  src={resolveUploadUrl(photoUrl)}
                   alt="Aperçu"
                   className="w-20 h-20 rounded-full object-cover border-2 border-gray-200"
                   onError={(e) => {
@@ -1,6 +1,6 @@
 import { create } from 'zustand'
 import { persist } from 'zustand/middleware'
-import { api } from '@/lib/api'
+import { api, clearTokens, REFRESH_TOKEN_KEY, storeTokens } from '@/lib/api'
 
 export interface User {
   id: string
@@ -33,10 +33,10 @@ export const useAuth = create<AuthState>()(
         try {
           set({ isLoading: true })
           const response = await api.post('/auth/login', { email, password })
-          const { token, user } = response.data
+          const { token, refreshToken, user } = response.data
           
-          // Store JWT token in localStorage
-          localStorage.setItem('jwt-token', token)
+          // Store the JWT and the refresh token that renews it without the password
+          storeTokens(token, refreshToken)
           
           set({ 
             user, 
@@ -50,8 +50,12 @@ export const useAuth = create<AuthState>()(
       },
 
       logout: () => {
-        // Clear JWT token
-        localStorage.removeItem('jwt-token')
+        // Revoke the refresh token server-side; signing out locally does not wait for it
+        const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY)
+        if (refreshToken) {
+          api.post('/auth/logout', { refreshToken }).catch(() => {})
+        }
+        clearTokens()
         set({ 
           user: null, 
           isAuthenticated: false, 
@@ -70,8 +74,8 @@ export const useAuth = create<AuthState>()(
             isLoading: false 
           })
         } catch (error) {
-          // Clear token if refresh fails
-          localStorage.removeItem('jwt-token')
+          // Clear tokens if refresh fails
+          clearTokens()
           set({ 
             user: null, 
             isAuthenticated: false, 
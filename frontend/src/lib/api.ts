@@ -1,6 +1,6 @@
 import axios from 'axios'
 
-const baseURL = (import.meta as any).env?.VITE_API_URL || 'http://localhost:8080/api'
+export const baseURL = (import.meta as any).env?.VITE_API_URL || 'http://localhost:8080/api'
 
 export const api = axios.create({
   baseURL,
@@ -27,19 +27,101 @@ api.interceptors.request.use(
   }
 )
 
-// Response interceptor to handle auth errors
+export const REFRESH_TOKEN_KEY = 'refresh-token'
+
+export function storeTokens(token: string, refreshToken?: string | null) {
+  localStorage.setItem('jwt-token', token)
+  if (refreshToken) {
+    localStorage.setItem(REFRESH_TOKEN_KEY, refreshToken)
+  }
+}
+
+export function clearTokens() {
+  localStorage.removeItem('jwt-token')
+  localStorage.removeItem(REFRESH_TOKEN_KEY)
+}
+
+// The refresh token is rotated on every use, so concurrent 401s share one refresh call
+let refreshInFlight: Promise<string> | null = null
+
+export function refreshAccessToken(): Promise<string> {
+  if (!refreshInFlight) {
+    const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY)
+    refreshInFlight = (refreshToken
+      ? axios.post(`${baseURL}/auth/refresh`, { refreshToken }, { withCredentials: true })
+          .then((response) => {
+            storeTokens(response.data.token, response.data.refreshToken)
+            return response.data.token as string
+          })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshInFlight = null
+    })
+  }
+  return refreshInFlight
+}
+
+// Response interceptor to handle auth errors: renew the session once through the refresh
+// token, and only send the user back to the login page when that fails too
 api.interceptors.response.use(
   (response) => {
     return response
   },
-  (error) => {
-    if (error.response?.status === 401) {
-      // Clear token and redirect to login on unauthorized
-      localStorage.removeItem('jwt-token')
+  async (error) => {
+    const original = error.config
+    const isAuthCall = original?.url?.startsWith('/auth/login') || original?.url?.startsWith('/auth/refresh')
+    if (error.response?.status === 401 && original && !original._retried && !isAuthCall) {
+      original._retried = true
+      try {
+        const token = await refreshAccessToken()
+        original.headers.Authorization = `Bearer ${token}`
+        return api(original)
+      } catch {
+        clearTokens()
+        window.location.href = '/login'
+      }
+    } else if (error.response?.status === 401 && !isAuthCall) {
+      clearTokens()
       window.location.href = '/login'
     }
     return Promise.reject(error)
   }
 )
 
+// Stored upload URLs are root-relative (/uploads/...); resolve them against the API origin
+export function resolveUploadUrl(url?: string | null): string | undefined {
+  if (!url) return undefined
+  if (/^(https?:|data:|blob:)/.test(url)) return url
+  if (url.startsWith('/api/')) {
+    return new URL(url, new URL(baseURL, window.location.origin)).toString()
+  }
+  return `${baseURL}${url}`
+}
+
+// Resized copies of a photo keyed by longest edge in pixels ("64", "160", "480")
+export type PhotoVariants = Record<string, string>
+
+// List avatars load a small variant instead of the full camera image
+export function resolvePhotoVariantUrl(photoUrl?: string | null, variants?: PhotoVariants | null, size: 64 | 160 | 480 = 160) {
+  return resolveUploadUrl(variants?.[size] ?? photoUrl)
+}
+
+// Variants are generated in the background, so a freshly uploaded photo's variant can 404;
+// switch the image to the original once, returning false when it already shows the original
+export function fallbackToOriginalPhoto(img: HTMLImageElement, photoUrl?: string | null): boolean {
+  const original = resolveUploadUrl(photoUrl)
+  if (!original || img.dataset.photoFallback || img.src === original) return false
+  img.dataset.photoFallback = 'true'
+  img.src = original
+  return true
+}
+
+// Camera captures are posted as the raw image bytes, so the server can stream them to disk
+export async function postCameraPhoto(url: string, dataUrl: string) {
+  const blob = await (await fetch(dataUrl)).blob()
+  return api.post(url, blob, {
+    headers: { 'Content-Type': blob.type || 'image/jpeg' },
+  })
+}
+
 export default api 
\ No newline at end of file
@@ -3,7 +3,7 @@ import { useTranslation } from 'react-i18next';
 import { useAuth } from '@/hooks/useAuth';
 import { useMode } from '@/contexts/ModeContext';
 import { useToast } from '@/hooks/use-toast';
-import { api } from '@/lib/api';
+import { api, fallbackToOriginalPhoto, resolvePhotoVariantUrl, type PhotoVariants } from '@/lib/api';
 import { Calendar, Clock, CheckCircle, XCircle, AlertCircle, User, Plus, Save, CalendarDays, History, BarChart3 } from 'lucide-react';
 import { motion } from 'framer-motion';
 
@@ -16,6 +16,7 @@ interface Student {
   level: string;
   classroom?: string;
   photoUrl?: string;
+  photoVariants?: PhotoVariants;
   studentType: 'KINDERGARTEN' | 'EXTRA_COURSE';
 }
 
@@ -563,9 +564,10 @@ const AttendancePage = () => {
                               <div className='w-10 h-10 rounded-full overflow-hidden border-2' style={{ borderColor: 'var(--mode-border)' }}>
                                 {student.photoUrl ? (
                                   <img
-                                    src={student.photoUrl}
+                                    src={resolvePhotoVariantUrl(student.photoUrl, student.photoVariants, 160)}
                                     alt={getDisplayName(student)}
                                     className='w-full h-full object-cover'
+                                    onError={(e) => fallbackToOriginalPhoto(e.currentTarget, student.photoUrl)}
                                   />
                                 ) : (
                                   <div className='w-full h-full flex items-center justify-center' style={{ backgroundColor: 'var(--mode-surface)' }}>
@@ -699,9 +701,10 @@ const AttendancePage = () => {
                                 <div className='w-8 h-8 rounded-full overflow-hidden border' style={{ borderColor: 'var(--mode-border)' }}>
                                   {record.student.photoUrl ? (
                                     <img
-                                      src={record.student.photoUrl}
+                                      src={resolvePhotoVariantUrl(record.student.photoUrl, record.student.photoVariants, 64)}
                                       alt={getDisplayName(record.student)}
                                       className='w-full h-full object-cover'
+                                      onError={(e) => fallbackToOriginalPhoto(e.currentTarget, record.student.photoUrl)}
                                     />
                                   ) : (
                                     <div className='w-full h-full flex items-center justify-center' style={{ backgroundColor: 'var(--mode-surface)' }}>
@@ -4,7 +4,7 @@ import { useAuth } from '@/hooks/useAuth';
 import { useMode } from '@/contexts/ModeContext';
 import { useToast } from '@/hooks/use-toast';
 import { useNavigate } from 'react-router-dom';
-import { api } from '@/lib/api';
+import { api, fallbackToOriginalPhoto, resolvePhotoVariantUrl, type PhotoVariants } from '@/lib/api';
 import RequirementModal from '@/components/belongings/RequirementModal';
 import { 
   BookOpen, 
@@ -59,6 +59,7 @@ interface StudentBelonging {
     lastNameArabic?: string;
     level: string;
     photoUrl?: string;
+    photoVariants?: PhotoVariants;
   };
 }
 
@@ -608,9 +609,10 @@ const BelongingsPage = () => {
                               <div className='w-10 h-10 rounded-full overflow-hidden border-2' style={{ borderColor: 'var(--mode-border)' }}>
                                 {belonging.student.photoUrl ? (
                                   <img
-                                    src={belonging.student.photoUrl}
+                                    src={resolvePhotoVariantUrl(belonging.student.photoUrl, belonging.student.photoVariants, 160)}
                                     alt={getDisplayName(belonging.student)}
                                     className='w-full h-full object-cover'
+                                    onError={(e) => fallbackToOriginalPhoto(e.currentTarget, belonging.student.photoUrl)}
                                   />
                                 ) : (
                                   <div className='w-full h-full flex items-center justify-center' style={{ backgroundColor: 'var(--mode-surface)' }}>
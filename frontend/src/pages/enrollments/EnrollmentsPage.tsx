@@ -3,7 +3,7 @@ import { useTranslation } from 'react-i18next';
 import { useAuth } from '@/hooks/useAuth';
 import { useMode } from '@/contexts/ModeContext';
 import { useToast } from '@/hooks/use-toast';
-import { api } from '@/lib/api';
+import { api, postCameraPhoto, resolveUploadUrl } from '@/lib/api';
 import { 
   Camera, 
   User, 
@@ -200,9 +200,7 @@ const EnrollmentsPage = () => {
 
   const handleCameraPhoto = async (base64Data: string) => {
     try {
-      const response = await api.post('/enrollments/upload-camera-photo', {
-        base64Data: base64Data
-      });
+      const response = await postCameraPhoto('/enrollments/upload-camera-photo', base64Data);
       
       setNewStudent({
         ...newStudent,
@@ -829,7 +827,7 @@ const EnrollmentsPage = () => {
                   >
                     {newStudent.photoUrl ? (
                       <img
-                        src={newStudent.photoUrl}
+                        src={resolveUploadUrl(newStudent.photoUrl)}
                         alt={t('enrollments.photo.alt')}
                         className='w-full h-full object-cover'
                         onError={(e) => {
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '@/hooks/useAuth';
 import { useTranslation } from 'react-i18next';
-import { api } from '@/lib/api';
+import { api, fallbackToOriginalPhoto, resolvePhotoVariantUrl, type PhotoVariants } from '@/lib/api';
 import { useToast } from '@/hooks/use-toast';
 import { useMode } from '@/contexts/ModeContext';
 import { motion, AnimatePresence } from 'framer-motion';
@@ -30,6 +30,7 @@ interface ExtraPayment {
   studentName: string;
   studentNameArabic?: string;
   studentPhotoUrl?: string;
+  studentPhotoVariants?: PhotoVariants;
   courseName: string;
   courseId: string;
   amount: number;
@@ -749,10 +750,11 @@ const ExtraPaymentsPage = () => {
                           >
                             {payment.studentPhotoUrl ? (
                               <img
-                                src={payment.studentPhotoUrl}
+                                src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                 alt={`${payment.studentName}`}
                                 className="w-full h-full object-cover"
                                 onError={(e) => {
+                                  if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                   const target = e.currentTarget as HTMLImageElement;
                                   target.style.display = 'none';
                                   const sibling = target.nextElementSibling as HTMLElement;
@@ -940,10 +942,11 @@ const ExtraPaymentsPage = () => {
                                 >
                                   {payment.studentPhotoUrl ? (
                                     <img 
-                                      src={payment.studentPhotoUrl}
+                                      src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                       alt={`${payment.studentName}`}
                                       className="w-full h-full object-cover"
                                       onError={(e) => {
+                                        if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                         const target = e.currentTarget as HTMLImageElement;
                                         target.style.display = 'none';
                                         const sibling = target.nextElementSibling as HTMLElement;
@@ -1156,10 +1159,11 @@ const ExtraPaymentsPage = () => {
                                   >
                                     {payment.studentPhotoUrl ? (
                                       <img
-                                        src={payment.studentPhotoUrl}
+                                        src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                         alt={`${payment.studentName}`}
                                         className="w-full h-full object-cover"
                                         onError={(e) => {
+                                          if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                           const target = e.currentTarget as HTMLImageElement;
                                           target.style.display = 'none';
                                           const sibling = target.nextElementSibling as HTMLElement;
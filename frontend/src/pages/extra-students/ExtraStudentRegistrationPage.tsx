@@ -2,7 +2,7 @@ import React, { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useTranslation } from 'react-i18next';
 import { useToast } from '@/hooks/use-toast';
-import { api } from '@/lib/api';
+import { api, postCameraPhoto, resolveUploadUrl } from '@/lib/api';
 import { motion, AnimatePresence } from 'framer-motion';
 import { useMode } from '@/contexts/ModeContext';
 import PhotoModal from '@/components/modals/PhotoModal';
@@ -147,9 +147,7 @@ const ExtraStudentRegistrationPage: React.FC = () => {
 
   const handleCameraPhoto = async (base64Data: string) => {
     try {
-      const response = await api.post('/enrollments/upload-camera-photo', {
-        base64Data: base64Data
-      });
+      const response = await postCameraPhoto('/enrollments/upload-camera-photo', base64Data);
       
       setFormData(prev => ({
         ...prev,
@@ -806,7 +804,7 @@ const ExtraStudentRegistrationPage: React.FC = () => {
                   >
                     {formData.photoUrl ? (
                       <img
-                        src={formData.photoUrl}
+                        src={resolveUploadUrl(formData.photoUrl)}
                         alt={t('extraStudentRegistration.form.photo')}
                         className="w-full h-full object-cover"
                         onError={(e) => {
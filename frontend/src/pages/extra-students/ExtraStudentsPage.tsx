@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useTranslation } from 'react-i18next';
 import { useAuth } from '@/hooks/useAuth';
-import { api } from '@/lib/api';
+import { api, postCameraPhoto, fallbackToOriginalPhoto, resolvePhotoVariantUrl, resolveUploadUrl, type PhotoVariants } from '@/lib/api';
 import { useToast } from '@/hooks/use-toast';
 import { useMode } from '@/contexts/ModeContext';
 import { motion, AnimatePresence } from 'framer-motion';
@@ -63,6 +63,7 @@ interface ExtraStudent {
   lastNameArabic?: string;
   birthDate: string;
   photoUrl?: string;
+  photoVariants?: PhotoVariants;
   responsibleName: string;
   responsibleNameArabic?: string;
   responsiblePhone: string;
@@ -470,9 +471,7 @@ const ExtraStudentsPage = () => {
   const handleUploadCamera = async (base64Data: string) => {
     if (!selectedStudent) return;
     
-    await api.post(`/extra-students/${selectedStudent.id}/upload-camera-photo`, {
-      base64Data: base64Data
-    });
+    await postCameraPhoto(`/extra-students/${selectedStudent.id}/upload-camera-photo`, base64Data);
     
     fetchStudents();
   };
@@ -575,13 +574,7 @@ const ExtraStudentsPage = () => {
     }
   };
 
-  const getPhotoUrl = (photoUrl?: string) => {
-    if (!photoUrl) return '';
-    if (photoUrl.startsWith('http://') || photoUrl.startsWith('https://')) {
-      return photoUrl;
-    }
-    return `http://localhost:8080/api${photoUrl}`;
-  };
+  const getPhotoUrl = (photoUrl?: string) => resolveUploadUrl(photoUrl) ?? '';
 
   const getStatusIcon = (status: string) => {
     return status === 'ACTIVE' ? (
@@ -1159,10 +1152,11 @@ const ExtraStudentsPage = () => {
                       >
                         {student.photoUrl ? (
                           <img
-                            src={getPhotoUrl(student.photoUrl)}
+                            src={resolvePhotoVariantUrl(student.photoUrl, student.photoVariants, 160)}
                             alt={`${student.firstName} ${student.lastName}`}
                             className="w-full h-full object-cover"
                             onError={(e) => {
+                              if (fallbackToOriginalPhoto(e.currentTarget, student.photoUrl)) return;
                               const target = e.currentTarget as HTMLImageElement;
                               target.style.display = 'none';
                               const sibling = target.nextElementSibling as HTMLElement;
@@ -1368,10 +1362,11 @@ const ExtraStudentsPage = () => {
                                 >
                                   {student.photoUrl ? (
                                     <img
-                                      src={getPhotoUrl(student.photoUrl)}
+                                      src={resolvePhotoVariantUrl(student.photoUrl, student.photoVariants, 64)}
                                       alt={`${student.firstName} ${student.lastName}`}
                                       className="w-full h-full object-cover"
                                       onError={(e) => {
+                                        if (fallbackToOriginalPhoto(e.currentTarget, student.photoUrl)) return;
                                         const target = e.currentTarget as HTMLImageElement;
                                         target.style.display = 'none';
                                         const sibling = target.nextElementSibling as HTMLElement;
@@ -1,6 +1,6 @@
 ﻿import { useState, useEffect } from 'react';
 import { useTranslation } from 'react-i18next';
-import { api } from '@/lib/api';
+import { api, fallbackToOriginalPhoto, resolvePhotoVariantUrl, type PhotoVariants } from '@/lib/api';
 import { useToast } from '@/hooks/use-toast';
 import { useAuth } from '@/hooks/useAuth';
 import { 
@@ -28,6 +28,7 @@ interface Payment {
   studentName: string;
   studentNameArabic?: string;
   studentPhotoUrl?: string;
+  studentPhotoVariants?: PhotoVariants;
   type: string;
   amount: number;
   status: 'UNPAID' | 'PAID' | 'PARTIAL' | 'OVERDUE';
@@ -889,10 +890,11 @@ const PaymentsPage = () => {
                           >
                             {payment.studentPhotoUrl ? (
                               <img
-                                src={payment.studentPhotoUrl}
+                                src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                 alt={`${payment.studentName}`}
                                 className="w-full h-full object-cover"
                                 onError={(e) => {
+                                  if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                   const target = e.currentTarget as HTMLImageElement;
                                   target.style.display = 'none';
                                   const sibling = target.nextElementSibling as HTMLElement;
@@ -1080,10 +1082,11 @@ const PaymentsPage = () => {
                                 >
                                   {payment.studentPhotoUrl ? (
                                     <img 
-                                      src={payment.studentPhotoUrl}
+                                      src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                       alt={`${payment.studentName}`}
                                       className="w-full h-full object-cover"
                                       onError={(e) => {
+                                        if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                         const target = e.currentTarget as HTMLImageElement;
                                         target.style.display = 'none';
                                         const sibling = target.nextElementSibling as HTMLElement;
@@ -1296,10 +1299,11 @@ const PaymentsPage = () => {
                                   >
                                     {payment.studentPhotoUrl ? (
                                       <img
-                                        src={payment.studentPhotoUrl}
+                                        src={resolvePhotoVariantUrl(payment.studentPhotoUrl, payment.studentPhotoVariants, 160)}
                                         alt={`${payment.studentName}`}
                                         className="w-full h-full object-cover"
                                         onError={(e) => {
+                                          if (fallbackToOriginalPhoto(e.currentTarget, payment.studentPhotoUrl)) return;
                                           const target = e.currentTarget as HTMLImageElement;
                                           target.style.display = 'none';
                                           const sibling = target.nextElementSibling as HTMLElement;
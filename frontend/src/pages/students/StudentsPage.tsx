@@ -3,7 +3,7 @@ import { useTranslation } from 'react-i18next';
 import { useAuth } from '@/hooks/useAuth';
 import { useMode } from '@/contexts/ModeContext';
 import { useToast } from '@/hooks/use-toast';
-import { api } from '@/lib/api';
+import { api, postCameraPhoto, fallbackToOriginalPhoto, resolvePhotoVariantUrl, resolveUploadUrl, type PhotoVariants } from '@/lib/api';
 import { Edit, Trash2, Plus, ChevronDown, ChevronRight, Camera, User, Download, Printer, Receipt } from 'lucide-react';
 import PhotoModal from '@/components/modals/PhotoModal';
 import PaymentHistoryModal from '@/components/modals/PaymentHistoryModal';
@@ -28,6 +28,7 @@ interface Student {
   notes?: string;
   status: string;
   photoUrl?: string;
+  photoVariants?: PhotoVariants;
   studentType: 'KINDERGARTEN' | 'EXTRA_COURSE';
 }
 
@@ -167,9 +168,7 @@ const StudentsPage = () => {
   };
 
   const handleUploadCamera = async (studentId: string, base64Data: string) => {
-    await api.post(`/students/${studentId}/upload-camera-photo`, {
-      base64Data: base64Data
-    });
+    await postCameraPhoto(`/students/${studentId}/upload-camera-photo`, base64Data);
     
     // Only refresh if we're still in the same mode
     if (currentMode === mode) {
@@ -439,7 +438,7 @@ const StudentsPage = () => {
                 <tr>
                   <td>
                     ${student.photoUrl 
-                      ? `<img src="${student.photoUrl}" alt="${student.firstName} ${student.lastName}" class="photo" />`
+                      ? `<img src="${resolveUploadUrl(student.photoUrl)}" alt="${student.firstName} ${student.lastName}" class="photo" />`
                       : '<div style="width: 50px; height: 50px; background: #f0f0f0; border-radius: 50%; display: flex; align-items: center; justify-content: center;">👤</div>'
                     }
                   </td>
@@ -842,10 +841,11 @@ const StudentsPage = () => {
                               <div className='w-10 h-10 rounded-full overflow-hidden border-2' style={{ borderColor: 'var(--mode-border)' }}>
                                 {student.photoUrl ? (
                                   <img
-                                    src={student.photoUrl}
+                                    src={resolvePhotoVariantUrl(student.photoUrl, student.photoVariants, 160)}
                                     alt={getDisplayName(student)}
                                     className='w-full h-full object-cover'
                                     onError={(e) => {
+                                      if (fallbackToOriginalPhoto(e.currentTarget, student.photoUrl)) return;
                                       const target = e.currentTarget as HTMLImageElement;
                                       target.style.display = 'none';
                                       const sibling = target.nextElementSibling as HTMLElement;
@@ -949,10 +949,11 @@ const StudentsPage = () => {
                                     <div className='w-32 h-32 rounded-full overflow-hidden border-4' style={{ borderColor: 'var(--mode-border)' }}>
                                       {student.photoUrl ? (
                                         <img
-                                          src={student.photoUrl}
+                                          src={resolvePhotoVariantUrl(student.photoUrl, student.photoVariants, 480)}
                                           alt={getDisplayName(student)}
                                           className='w-full h-full object-cover'
                                           onError={(e) => {
+                                            if (fallbackToOriginalPhoto(e.currentTarget, student.photoUrl)) return;
                                             const target = e.currentTarget as HTMLImageElement;
                                             target.style.display = 'none';
                                             const sibling = target.nextElementSibling as HTMLElement;
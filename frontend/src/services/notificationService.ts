@@ -1,4 +1,4 @@
-import { api } from '@/lib/api';
+import { api, baseURL, refreshAccessToken } from '@/lib/api';
 
 export interface Notification {
   id: string;
@@ -28,6 +28,73 @@ export interface NotificationResponse {
   number: number;
 }
 
+export interface NotificationStreamHandlers {
+  onNotification: (notification: Notification) => void;
+  onUnreadCount: (count: number) => void;
+  // The server could not replay what was missed; reload from the REST endpoints
+  onResync: () => void;
+}
+
+interface StreamEvent {
+  id?: string;
+  event: string;
+  data: string;
+  retry?: number;
+}
+
+// Parse a text/event-stream body, calling onEvent for every complete event
+async function readEventStream(body: ReadableStream<Uint8Array>, onEvent: (event: StreamEvent) => void): Promise<void> {
+  const reader = body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  let current: StreamEvent = { event: 'message', data: '' };
+  let hasData = false;
+
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) return;
+    buffer += decoder.decode(value, { stream: true });
+
+    let newline: number;
+    while ((newline = buffer.indexOf('\n')) >= 0) {
+      const line = buffer.slice(0, newline).replace(/\r$/, '');
+      buffer = buffer.slice(newline + 1);
+
+      if (line === '') {
+        if (hasData) onEvent(current);
+        current = { event: 'message', data: '' };
+        hasData = false;
+        continue;
+      }
+      if (line.startsWith(':')) continue; // heartbeat comment
+
+      const colon = line.indexOf(':');
+      const field = colon >= 0 ? line.slice(0, colon) : line;
+      const value = colon >= 0 ? line.slice(colon + 1).replace(/^ /, '') : '';
+      if (field === 'data') {
+        current.data = hasData ? `${current.data}\n${value}` : value;
+        hasData = true;
+      } else if (field === 'event') {
+        current.event = value;
+      } else if (field === 'id') {
+        current.id = value;
+      } else if (field === 'retry' && /^\d+$/.test(value)) {
+        current.retry = Number(value);
+      }
+    }
+  }
+}
+
+function waitFor(ms: number, signal: AbortSignal): Promise<void> {
+  return new Promise((resolve) => {
+    const timer = setTimeout(resolve, ms);
+    signal.addEventListener('abort', () => {
+      clearTimeout(timer);
+      resolve();
+    }, { once: true });
+  });
+}
+
 class NotificationService {
   async getNotifications(page: number = 0, size: number = 10): Promise<NotificationResponse> {
     const response = await api.get(`/notifications?page=${page}&size=${size}`);
@@ -44,6 +111,67 @@ class NotificationService {
     return response.data.count;
   }
 
+  // Live notifications for the current user. EventSource cannot send the Authorization
+  // header, so the stream is read with fetch; reconnects pass Last-Event-ID to get what was
+  // missed. Returns a function that closes the stream.
+  subscribe(handlers: NotificationStreamHandlers): () => void {
+    const controller = new AbortController();
+    let lastEventId: string | undefined;
+    let retryMs = 3000;
+
+    const run = async () => {
+      let refreshed = false;
+      while (!controller.signal.aborted) {
+        try {
+          const headers: Record<string, string> = { Accept: 'text/event-stream' };
+          const token = localStorage.getItem('jwt-token');
+          if (token) headers.Authorization = `Bearer ${token}`;
+          if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+          const response = await fetch(`${baseURL}/notifications/stream`, {
+            headers,
+            credentials: 'include',
+            signal: controller.signal,
+          });
+          if (response.status === 401) {
+            // Renew the access token once; if that is refused the session is over
+            if (refreshed) return;
+            refreshed = true;
+            try {
+              await refreshAccessToken();
+            } catch {
+              return;
+            }
+            continue;
+          }
+          if (!response.ok || !response.body) {
+            throw new Error(`Notification stream responded ${response.status}`);
+          }
+          refreshed = false;
+
+          await readEventStream(response.body, (event) => {
+            if (event.id) lastEventId = event.id;
+            if (event.retry) retryMs = event.retry;
+            if (event.event === 'notification') {
+              handlers.onNotification(JSON.parse(event.data));
+            } else if (event.event === 'unread-count') {
+              handlers.onUnreadCount(JSON.parse(event.data).count);
+            } else if (event.event === 'resync') {
+              handlers.onResync();
+            }
+          });
+        } catch (error) {
+          if (controller.signal.aborted) return;
+          console.warn('Notification stream disconnected:', error);
+        }
+        await waitFor(retryMs, controller.signal);
+      }
+    };
+
+    run();
+    return () => controller.abort();
+  }
+
   async markAsRead(notificationId: string): Promise<void> {
     await api.put(`/notifications/${notificationId}/read`, {});
   }